@@ -34,6 +34,7 @@ dependencies {
     implementation(libs.imageio.batik)
     implementation(libs.jSystemThemeDetector)
     compileOnly(libs.lombok)
+    compileOnly(libs.junitJupiterApi)
     annotationProcessor(libs.lombok)
     testCompileOnly(libs.lombok)
     testAnnotationProcessor(libs.lombok)
@@ -0,0 +1,318 @@
+package fopbot;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs every program of a set of robot programs on every fixture of a set of world fixtures in parallel.
+ *
+ * <p>Each run gets its own world, created by its fixture, which is installed as the
+ * {@linkplain World#runWith(KarelWorld, Runnable) global world} of the thread executing the run, so programs that
+ * create robots via {@link Robot#Robot(int, int)} are isolated from each other as well. Fixtures are called with a
+ * global world of their own for the same reason. The outcome of each run is reported as a {@link RunResult} as soon
+ * as the run finishes, including runs whose fixture has failed.
+ *
+ * <pre>{@code
+ * final BatchRunner runner = new BatchRunner();
+ * runner.addProgram("solution", world -> new Robot(world, 0, 0).move());
+ * runner.addFixture("empty", () -> new KarelWorld(5, 5));
+ * runner.setActionLimit(10_000);
+ * runner.run(result -> System.out.println(result.program() + "@" + result.fixture() + ": " + result.isSuccess()));
+ * }</pre>
+ */
+public class BatchRunner {
+
+    /**
+     * The programs to run, mapped by their names.
+     */
+    private final @NotNull Map<String, Consumer<KarelWorld>> programs = new LinkedHashMap<>();
+
+    /**
+     * The fixtures creating the worlds to run the programs on, mapped by their names.
+     */
+    private final @NotNull Map<String, Supplier<KarelWorld>> fixtures = new LinkedHashMap<>();
+
+    /**
+     * The executor running the runs.
+     */
+    private final @NotNull Executor executor;
+
+    /**
+     * The action limit applied to every world or a negative value to keep the limit set by the fixture.
+     */
+    private long actionLimit = -1;
+
+    /**
+     * The execution profile applied to every world.
+     */
+    private @NotNull ExecutionProfile executionProfile = ExecutionProfile.TURBO;
+
+    /**
+     * Whether the traces of the robots are recorded.
+     */
+    private boolean traceRecording = true;
+
+    /**
+     * The wall-clock time budget of each run or {@code null} for no limit.
+     */
+    private @Nullable Duration wallBudget;
+
+    /**
+     * The CPU time budget of each run or {@code null} for no limit.
+     */
+    private @Nullable Duration cpuBudget;
+
+    /**
+     * Constructs a runner executing the runs on the common {@link ForkJoinPool}.
+     */
+    public BatchRunner() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a runner executing the runs on the specified executor, e.g. a virtual-thread-per-task executor.
+     *
+     * @param executor the executor running the runs
+     */
+    public BatchRunner(final @NotNull Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Adds a program to run on every fixture.
+     *
+     * @param name    the unique name of the program
+     * @param program the program, which receives the world of the run
+     *
+     * @throws IllegalArgumentException if a program with the same name has already been added
+     */
+    public void addProgram(final @NotNull String name, final @NotNull Consumer<KarelWorld> program) {
+        if (programs.putIfAbsent(name, program) != null) {
+            throw new IllegalArgumentException("Duplicate program: " + name);
+        }
+    }
+
+    /**
+     * Adds a fixture to run every program on. The fixture is called once per run and has to return a new world each
+     * time.
+     *
+     * @param name    the unique name of the fixture
+     * @param fixture the fixture creating the world of a run
+     *
+     * @throws IllegalArgumentException if a fixture with the same name has already been added
+     */
+    public void addFixture(final @NotNull String name, final @NotNull Supplier<KarelWorld> fixture) {
+        if (fixtures.putIfAbsent(name, fixture) != null) {
+            throw new IllegalArgumentException("Duplicate fixture: " + name);
+        }
+    }
+
+    /**
+     * Returns the number of runs, i.e. the number of programs times the number of fixtures.
+     *
+     * @return the number of runs
+     */
+    public int getRunCount() {
+        return programs.size() * fixtures.size();
+    }
+
+    /**
+     * Returns the action limit applied to every world.
+     *
+     * @return the action limit or a negative value if the limit set by the fixture is kept
+     */
+    public long getActionLimit() {
+        return actionLimit;
+    }
+
+    /**
+     * Sets the action limit applied to every world.
+     *
+     * @param actionLimit the action limit or a negative value to keep the limit set by the fixture
+     */
+    public void setActionLimit(final long actionLimit) {
+        this.actionLimit = actionLimit;
+    }
+
+    /**
+     * Returns the execution profile applied to every world.
+     *
+     * @return the execution profile applied to every world
+     */
+    public @NotNull ExecutionProfile getExecutionProfile() {
+        return executionProfile;
+    }
+
+    /**
+     * Sets the execution profile applied to every world. Defaults to {@link ExecutionProfile#TURBO}.
+     *
+     * @param executionProfile the execution profile applied to every world
+     */
+    public void setExecutionProfile(final @NotNull ExecutionProfile executionProfile) {
+        this.executionProfile = executionProfile;
+    }
+
+    /**
+     * Returns true if the traces of the robots are recorded.
+     *
+     * @return true if the traces of the robots are recorded
+     */
+    public boolean isTraceRecording() {
+        return traceRecording;
+    }
+
+    /**
+     * Sets whether the traces of the robots are recorded and reported in the results. Defaults to {@code true}.
+     *
+     * @param traceRecording true if the traces of the robots should be recorded
+     */
+    public void setTraceRecording(final boolean traceRecording) {
+        this.traceRecording = traceRecording;
+    }
+
+    /**
+     * Returns the wall-clock time budget of each run.
+     *
+     * @return the wall-clock time budget or {@code null} if there is no limit
+     */
+    public @Nullable Duration getWallBudget() {
+        return wallBudget;
+    }
+
+    /**
+     * Returns the CPU time budget of each run.
+     *
+     * @return the CPU time budget or {@code null} if there is no limit
+     */
+    public @Nullable Duration getCpuBudget() {
+        return cpuBudget;
+    }
+
+    /**
+     * Sets the time budgets of each run, which are enforced by the {@link Watchdog}. A run exceeding one of its
+     * budgets fails with an {@link ExecutionCancelledException}.
+     *
+     * @param wallBudget the wall-clock time budget or {@code null} for no limit
+     * @param cpuBudget  the CPU time budget or {@code null} for no limit
+     */
+    public void setTimeBudget(final @Nullable Duration wallBudget, final @Nullable Duration cpuBudget) {
+        this.wallBudget = wallBudget;
+        this.cpuBudget = cpuBudget;
+    }
+
+    /**
+     * Executes all runs and passes their results to the specified consumer in the order the runs finish. The consumer
+     * is called on the calling thread, and this method returns after all results have been passed.
+     *
+     * @param consumer the consumer receiving the results
+     *
+     * @throws RuntimeException if the calling thread is interrupted while waiting for the runs
+     */
+    public void run(final @NotNull Consumer<? super RunResult> consumer) {
+        final CompletionService<RunResult> completionService = new ExecutorCompletionService<>(executor);
+        for (final var program : programs.entrySet()) {
+            for (final var fixture : fixtures.entrySet()) {
+                completionService.submit(
+                    () -> run(program.getKey(), program.getValue(), fixture.getKey(), fixture.getValue())
+                );
+            }
+        }
+        for (int i = getRunCount(); i > 0; i--) {
+            try {
+                consumer.accept(completionService.take().get());
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for runs", e);
+            } catch (final ExecutionException e) {
+                // runs report all exceptions of their fixtures and programs in their results
+                throw new RuntimeException("Run failed unexpectedly", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Executes all runs and returns their results in the order the runs finished.
+     *
+     * @return the results of all runs
+     *
+     * @throws RuntimeException if the calling thread is interrupted while waiting for the runs
+     */
+    public @NotNull List<RunResult> runAll() {
+        final List<RunResult> results = new ArrayList<>(getRunCount());
+        run(results::add);
+        return results;
+    }
+
+    /**
+     * Executes a single run.
+     *
+     * @param programName the name of the program
+     * @param program     the program to run
+     * @param fixtureName the name of the fixture
+     * @param fixture     the fixture creating the world of the run
+     *
+     * @return the result of the run, which holds the exception of the fixture if it failed
+     */
+    private @NotNull RunResult run(
+        final @NotNull String programName,
+        final @NotNull Consumer<KarelWorld> program,
+        final @NotNull String fixtureName,
+        final @NotNull Supplier<KarelWorld> fixture
+    ) {
+        final long fixtureStart = System.nanoTime();
+        final KarelWorld world;
+        try {
+            // a fixture using the global world must not touch the one of the thread executing the run
+            world = World.callWith(new KarelWorld(10, 10), fixture);
+        } catch (final Throwable t) {
+            return new RunResult(
+                programName,
+                fixtureName,
+                0,
+                new WorldStats(0, 0, 0, 0, 0, 0),
+                List.of(),
+                0,
+                t,
+                Duration.ofNanos(System.nanoTime() - fixtureStart)
+            );
+        }
+        world.setExecutionProfile(executionProfile);
+        world.setTraceRecording(traceRecording);
+        if (actionLimit >= 0) {
+            world.setActionLimit(actionLimit);
+        }
+        final long start = System.nanoTime();
+        final Throwable exception = World.callWith(world, () -> {
+            try (Watchdog.Watch ignored = Watchdog.watch(world, wallBudget, cpuBudget)) {
+                program.accept(world);
+                return null;
+            } catch (final Throwable t) {
+                return t;
+            }
+        });
+        final Duration duration = Duration.ofNanos(System.nanoTime() - start);
+        return new RunResult(
+            programName,
+            fixtureName,
+            world.getStateHash(),
+            world.getStats(),
+            traceRecording ? world.getTraces() : List.of(),
+            world.getActionCount(),
+            exception,
+            duration
+        );
+    }
+}
@@ -0,0 +1,24 @@
+package fopbot;
+
+/**
+ * The reasons why the execution in a {@link KarelWorld} can be cancelled.
+ *
+ * @see KarelWorld#cancel(CancellationReason)
+ */
+public enum CancellationReason {
+
+    /**
+     * The execution exceeded its wall-clock time budget.
+     */
+    WALL_TIME_EXCEEDED,
+
+    /**
+     * The execution exceeded its CPU time budget.
+     */
+    CPU_TIME_EXCEEDED,
+
+    /**
+     * The execution was cancelled explicitly.
+     */
+    CANCELLED
+}
@@ -87,7 +87,8 @@ public record ColorProfile(
      * @see GuiPanel#isDarkMode()
      */
     private boolean isDarkMode() {
-        return World.getGlobalWorld().getGuiPanel().isDarkMode();
+        final GuiPanel guiPanel = World.getGlobalWorld().getGuiPanel();
+        return guiPanel != null && guiPanel.isDarkMode();
     }
 
     /**
@@ -0,0 +1,232 @@
+package fopbot;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A {@link WorldStorage} that keeps one byte of sensor flags per cell and only materializes the fields that are
+ * actually used.
+ *
+ * <p>The sensor queries ({@link #isBlockInField(int, int)}, {@link #isWallInField(int, int, boolean)} and
+ * {@link #isCoinInField(int, int)}) are answered from the flags in constant time without touching any field. This
+ * makes the storage a good fit for large, densely populated worlds that still fit into a single array.
+ */
+public class CompactWorldStorage implements WorldStorage {
+
+    /**
+     * The maximum number of cells a compact storage supports.
+     */
+    public static final long MAX_CELLS = Integer.MAX_VALUE - 8;
+
+    /**
+     * The flag indicating that a block is on a cell.
+     */
+    private static final byte BLOCK = 1;
+
+    /**
+     * The flag indicating that a horizontal wall is on a cell.
+     */
+    private static final byte HORIZONTAL_WALL = 1 << 1;
+
+    /**
+     * The flag indicating that a vertical wall is on a cell.
+     */
+    private static final byte VERTICAL_WALL = 1 << 2;
+
+    /**
+     * The flag indicating that at least one coin is on a cell.
+     */
+    private static final byte COIN = 1 << 3;
+
+    /**
+     * The world whose fields are stored.
+     */
+    private final @NotNull KarelWorld world;
+
+    /**
+     * The width of the stored world.
+     */
+    private final int width;
+
+    /**
+     * The height of the stored world.
+     */
+    private final int height;
+
+    /**
+     * The sensor flags of all cells in row-major order.
+     */
+    private final byte[] flags;
+
+    /**
+     * The materialized fields in row-major order or {@code null} for cells whose field has not been materialized.
+     */
+    private final @NotNull AtomicReferenceArray<Field> fields;
+
+    /**
+     * Constructs and initializes a compact storage for the specified world.
+     *
+     * @param world the world to store
+     *
+     * @throws IllegalArgumentException if the world has more than {@link #MAX_CELLS} cells
+     */
+    public CompactWorldStorage(final @NotNull KarelWorld world) {
+        final long cells = (long) world.getWidth() * world.getHeight();
+        if (cells > MAX_CELLS) {
+            throw new IllegalArgumentException("World too large for compact storage: " + cells + " cells");
+        }
+        this.world = world;
+        this.width = world.getWidth();
+        this.height = world.getHeight();
+        this.flags = new byte[(int) cells];
+        this.fields = new AtomicReferenceArray<>((int) cells);
+    }
+
+    /**
+     * Returns the cell index of the specified coordinate.
+     *
+     * @param x the X coordinate
+     * @param y the Y coordinate
+     *
+     * @return the cell index of the specified coordinate
+     *
+     * @throws IndexOutOfBoundsException if the coordinate is outside the world borders
+     */
+    private int index(final int x, final int y) {
+        return Objects.checkIndex(y, height) * width + Objects.checkIndex(x, width);
+    }
+
+    /**
+     * Returns the sensor flag that represents the specified entity.
+     *
+     * @param entity the entity to get the flag for
+     *
+     * @return the sensor flag of the entity or {@code 0} if the entity is not sensed
+     */
+    private static byte flagOf(final @NotNull FieldEntity entity) {
+        if (entity instanceof Block) {
+            return BLOCK;
+        }
+        if (entity instanceof final Wall wall) {
+            return wall.isHorizontal() ? HORIZONTAL_WALL : VERTICAL_WALL;
+        }
+        if (entity instanceof Coin) {
+            return COIN;
+        }
+        return 0;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public @NotNull Field getField(final int x, final int y) {
+        final int index = index(x, y);
+        final Field field = fields.get(index);
+        if (field != null) {
+            return field;
+        }
+        final Field created = new Field(world, x, y);
+        return fields.compareAndSet(index, null, created) ? created : fields.get(index);
+    }
+
+    @Override
+    public @Nullable Field peekField(final int x, final int y) {
+        return fields.get(index(x, y));
+    }
+
+    @Override
+    public boolean isBlockInField(final int x, final int y) {
+        return (flags[index(x, y)] & BLOCK) != 0;
+    }
+
+    @Override
+    public boolean isWallInField(final int x, final int y, final boolean horizontal) {
+        return (flags[index(x, y)] & (horizontal ? HORIZONTAL_WALL : VERTICAL_WALL)) != 0;
+    }
+
+    @Override
+    public boolean isCoinInField(final int x, final int y) {
+        return (flags[index(x, y)] & COIN) != 0;
+    }
+
+    @Override
+    public void entityAdded(final @NotNull FieldEntity entity) {
+        flags[index(entity.getX(), entity.getY())] |= flagOf(entity);
+    }
+
+    @Override
+    public void entityRemoved(final @NotNull FieldEntity entity) {
+        final int index = index(entity.getX(), entity.getY());
+        byte remaining = 0;
+        final Field field = fields.get(index);
+        if (field != null) {
+            for (final FieldEntity other : field.getEntities()) {
+                remaining |= flagOf(other);
+            }
+        }
+        flags[index] = remaining;
+    }
+
+    @Override
+    public void clear() {
+        for (final Field field : this) {
+            field.getEntities().clear();
+        }
+        Arrays.fill(flags, (byte) 0);
+    }
+
+    @Override
+    public @NotNull Iterator<Field> iterator() {
+        return new Iterator<>() {
+
+            /**
+             * The cell index of the next materialized field or the number of cells if there is none.
+             */
+            private int next = advance(0);
+
+            /**
+             * Returns the cell index of the first materialized field at or after the specified index.
+             *
+             * @param from the cell index to start at
+             *
+             * @return the cell index of the field or the number of cells if there is none
+             */
+            private int advance(final int from) {
+                int index = from;
+                while (index < fields.length() && fields.get(index) == null) {
+                    index++;
+                }
+                return index;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next < fields.length();
+            }
+
+            @Override
+            public Field next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final Field field = fields.get(next);
+                next = advance(next + 1);
+                return field;
+            }
+        };
+    }
+}
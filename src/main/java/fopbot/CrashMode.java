@@ -0,0 +1,30 @@
+package fopbot;
+
+/**
+ * Determines how the crash of a robot is signalled to the program controlling it.
+ *
+ * <p>In every mode, a crashed robot is turned off, and the {@linkplain CrashReason reason} of the crash is available
+ * through {@link Robot#getCrashReason()} and, if the actions are recorded, {@link RobotTrace#getCrashReason()}.
+ *
+ * @see KarelWorld#setCrashMode(CrashMode)
+ */
+public enum CrashMode {
+
+    /**
+     * The crash is printed to {@link System#err} and a {@link RobotCrashedException} with a stack trace is thrown.
+     * This is the default.
+     */
+    THROW,
+
+    /**
+     * A {@link StacklessRobotCrashedException} is thrown, which does not capture a stack trace and is not printed.
+     * Suited for programs that crash robots very often, e.g. when fuzzing.
+     */
+    STACKLESS,
+
+    /**
+     * No exception is thrown. The failing action returns normally, leaving the robot turned off, and the program can
+     * check the outcome via {@link Robot#getCrashReason()}.
+     */
+    RECORD
+}
@@ -0,0 +1,25 @@
+package fopbot;
+
+/**
+ * The reasons why a robot can crash.
+ *
+ * @see RobotCrashedException#getReason()
+ * @see Robot#getCrashReason()
+ */
+public enum CrashReason {
+
+    /**
+     * The robot tried to put a coin without carrying one or to pick up a coin from a field without coins.
+     */
+    NO_COINS,
+
+    /**
+     * The robot tried to move into a wall or a block.
+     */
+    BLOCKED,
+
+    /**
+     * The robot tried to move out of the world.
+     */
+    OUT_OF_BOUNDS
+}
@@ -0,0 +1,65 @@
+package fopbot;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * A {@link WorldStorage} that eagerly creates every field of the world in a two-dimensional array.
+ *
+ * <p>This is the storage of choice for small worlds, where the overhead of a {@link Field} per cell is negligible.
+ */
+public class DenseWorldStorage implements WorldStorage {
+
+    /**
+     * The world fields as 2D coordinate system.
+     */
+    private final Field[][] fields;
+
+    /**
+     * Constructs and initializes a dense storage for the specified world.
+     *
+     * @param world the world to store
+     */
+    public DenseWorldStorage(final @NotNull KarelWorld world) {
+        fields = new Field[world.getHeight()][world.getWidth()];
+        for (int y = 0; y < fields.length; y++) {
+            for (int x = 0; x < fields[y].length; x++) {
+                fields[y][x] = new Field(world, x, y);
+            }
+        }
+    }
+
+    @Override
+    public int getWidth() {
+        return fields[0].length;
+    }
+
+    @Override
+    public int getHeight() {
+        return fields.length;
+    }
+
+    @Override
+    public @NotNull Field getField(final int x, final int y) {
+        return fields[y][x];
+    }
+
+    @Override
+    public @NotNull Field peekField(final int x, final int y) {
+        return fields[y][x];
+    }
+
+    @Override
+    public void clear() {
+        for (final Field field : this) {
+            field.getEntities().clear();
+        }
+    }
+
+    @Override
+    public @NotNull Iterator<Field> iterator() {
+        return Arrays.stream(fields).flatMap(Arrays::stream).iterator();
+    }
+}
@@ -0,0 +1,43 @@
+package fopbot;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Serial;
+
+/**
+ * Thrown by the next action or sensor call of a robot after the execution in its world has been cancelled.
+ *
+ * @see KarelWorld#cancel(CancellationReason)
+ */
+public class ExecutionCancelledException extends RuntimeException {
+
+    /**
+     * The version of the serialized form of this exception.
+     */
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The reason why the execution has been cancelled.
+     */
+    private final @NotNull CancellationReason reason;
+
+    /**
+     * Constructs an exception for an execution cancelled for the specified reason.
+     *
+     * @param reason the reason why the execution has been cancelled
+     */
+    public ExecutionCancelledException(final @NotNull CancellationReason reason) {
+        super("Execution cancelled: " + reason);
+        this.reason = reason;
+    }
+
+    /**
+     * Returns the reason why the execution has been cancelled.
+     *
+     * @return the reason why the execution has been cancelled
+     */
+    public @NotNull CancellationReason getReason() {
+        return reason;
+    }
+}
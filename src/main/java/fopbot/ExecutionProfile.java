@@ -0,0 +1,34 @@
+package fopbot;
+
+/**
+ * The execution profiles of a {@link KarelWorld}, which determine how much work is done for each robot action besides
+ * the action itself.
+ *
+ * @see KarelWorld#setExecutionProfile(ExecutionProfile)
+ */
+public enum ExecutionProfile {
+
+    /**
+     * The default profile. After each action, the state of the world is saved to its history, the graphical user
+     * interface is updated and the world sleeps for its delay.
+     */
+    INTERACTIVE,
+
+    /**
+     * A profile for headless execution, e.g. for grading. Actions neither save the state of the world, nor update the
+     * graphical user interface, nor sleep. Robot traces are not recorded unless explicitly
+     * {@linkplain KarelWorld#setTraceRecording(boolean) requested}, but actions are still counted towards the action
+     * limit.
+     */
+    TURBO;
+
+    /**
+     * Returns whether actions performed under this profile save the state of the world, update the graphical user
+     * interface and sleep.
+     *
+     * @return {@code true} if actions update the world's history and graphical user interface
+     */
+    public boolean isInteractive() {
+        return this == INTERACTIVE;
+    }
+}
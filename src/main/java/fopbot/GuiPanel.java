@@ -242,6 +242,16 @@ public class GuiPanel extends JPanel {
 
     @Override
     public void paintComponent(final Graphics g) {
+        // the color profile reads the dark mode from the global world, so the world drawn has to be the global one
+        World.runWith(world, () -> paintWorld(g));
+    }
+
+    /**
+     * Paints the world of this panel.
+     *
+     * @param g the {@code Graphics} context in which to paint
+     */
+    private void paintWorld(final @NotNull Graphics g) {
         final var bounds = getScaledWorldBounds();
 
         final BufferedImage image = new BufferedImage(
@@ -269,11 +279,14 @@ public class GuiPanel extends JPanel {
      */
     protected void draw(final @NotNull Graphics g) {
         drawBoard(g);
+        if (world.isDrawHeatmap()) {
+            drawHeatmap(g);
+        }
         final var config = world.getDrawingRegistry();
         final var drawingOrder = config.order();
         final Rectangle bounds = getBounds();
         final ColorProfile colorProfile = getColorProfile();
-        world.getFields().forEach(field -> {
+        world.getStorage().forEach(field -> {
             final List<FieldEntity> sorted = new ArrayList<>(field.getEntities());
             sorted.sort(drawingOrder);
             sorted.forEach(entity -> {
@@ -290,6 +303,24 @@ public class GuiPanel extends JPanel {
                 drawable.draw(g, context);
             });
         });
+        final RobotSwarm swarm = world.peekSwarm();
+        if (swarm != null) {
+            @SuppressWarnings("unchecked") final Drawable<Robot> drawable =
+                (Drawable<Robot>) config.getDrawing(Robot.class);
+            for (int i = 0; i < swarm.size(); i++) {
+                final Robot robot = swarm.robot(i);
+                // do not materialize fields of lazy storages just for drawing
+                final Field field = world.getStorage().peekField(robot.getX(), robot.getY());
+                drawable.draw(g, new DrawingContext<>(
+                    robot,
+                    world,
+                    bounds,
+                    colorProfile,
+                    scaleFactor,
+                    field != null ? field : new Field(world, robot.getX(), robot.getY())
+                ));
+            }
+        }
     }
 
     /**
@@ -322,8 +353,9 @@ public class GuiPanel extends JPanel {
             for (int w = 0; w < world.getWidth(); w++) {
                 final var pos = new Point(w, h);
                 g2d.setColor(getColorProfile().getFieldColor(pos));
-                if (world.getField(w, World.getHeight() - h - 1).getFieldColor() != null) {
-                    g2d.setColor(world.getField(w, World.getHeight() - h - 1).getFieldColor());
+                final Color fieldColor = world.getFieldColor(w, world.getHeight() - h - 1);
+                if (fieldColor != null) {
+                    g2d.setColor(fieldColor);
                 }
                 g2d.fill(
                     new Rectangle2D.Double(
@@ -374,6 +406,40 @@ public class GuiPanel extends JPanel {
         g2d.setStroke(oldStroke);
     }
 
+    /**
+     * Draws a heat map of the fields visited by the robots over the board. The more often a field has been entered,
+     * the more opaque it is tinted.
+     *
+     * @param g the {@code Graphics} context in which to paint
+     */
+    protected void drawHeatmap(final Graphics g) {
+        final var g2d = (Graphics2D) g;
+        final TraceStatistics statistics = world.getStatistics();
+        final int maxVisitCount = statistics.getMaxVisitCount();
+        if (maxVisitCount == 0) {
+            return;
+        }
+        final int step = getColorProfile().fieldBorderThickness() + getColorProfile().fieldInnerSize();
+        final int offset = getColorProfile().boardOffset() + getColorProfile().fieldBorderThickness();
+        for (int h = 0; h < world.getHeight(); h++) {
+            for (int w = 0; w < world.getWidth(); w++) {
+                final int visitCount = statistics.getVisitCount(w, world.getHeight() - h - 1);
+                if (visitCount == 0) {
+                    continue;
+                }
+                g2d.setColor(new Color(255, 64, 0, (int) (48 + 160L * visitCount / maxVisitCount)));
+                g2d.fill(
+                    new Rectangle2D.Double(
+                        scale(offset + w * step),
+                        scale(offset + h * step),
+                        scale(getColorProfile().fieldInnerSize()),
+                        scale(getColorProfile().fieldInnerSize())
+                    )
+                );
+            }
+        }
+    }
+
     /**
      * Updates the content of the graphical user interface.
      */
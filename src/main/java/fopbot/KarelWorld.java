@@ -8,18 +8,25 @@ import org.jetbrains.annotations.Nullable;
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.GraphicsEnvironment;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.PrimitiveIterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Predicate;
 import java.util.stream.IntStream;
-import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import javax.swing.JFrame;
 import javax.swing.WindowConstants;
 
@@ -38,6 +45,11 @@ public class KarelWorld {
      * triggered.
      */
     private static final boolean saveStates = true;
+
+    /**
+     * The maximum number of fields of a world for which a passability mask is computed.
+     */
+    private static final long PASSABILITY_MASK_CELL_LIMIT = 1 << 26;
     /**
      * The height of this world.
      */
@@ -47,9 +59,40 @@ public class KarelWorld {
      */
     private final int width;
     /**
-     * The world fields as 2D coordinate system.
+     * The storage holding the fields of this world.
+     */
+    private final WorldStorage storage;
+
+    /**
+     * The spatial index over the robots of this world.
+     */
+    private final RobotIndex robotIndex;
+
+    /**
+     * The swarm of lightweight robots living in this world or {@code null} if it has not been created yet.
+     */
+    private @Nullable RobotSwarm swarm;
+
+    /**
+     * The executor currently interleaving the robot programs of this world or {@code null} if there is none.
+     */
+    private @Nullable RobotExecutor executor;
+
+    /**
+     * The locks guarding the fields of this world or {@code null} if this world is not in concurrent mode.
+     */
+    private @Nullable RegionLocks regionLocks;
+
+    /**
+     * The cached passability of the fields of this world or {@code null} if it has to be recomputed.
+     */
+    private byte @Nullable [] passabilityMask;
+
+    /**
+     * The fields of this world with coins as a bit set in row-major order or {@code null} if it has not been computed
+     * yet. Once computed, it is updated whenever coins are added to or removed from a field.
      */
-    private final Field[][] fields;
+    private @Nullable AtomicLongArray coinMask;
 
     /**
      * The maximum number of actions that can be performed in this world.
@@ -58,7 +101,84 @@ public class KarelWorld {
     /**
      * The robot tracing of robot actions.
      */
-    private final Map<String, RobotTrace> traces = new HashMap<>();
+    private final Map<String, RobotTrace> traces = new ConcurrentHashMap<>();
+
+    /**
+     * The statistics about the fields visited by all robots of this world, created when the first visit is recorded.
+     */
+    private volatile @Nullable TraceStatistics statistics;
+
+    /**
+     * Whether statistics are kept for each robot of this world on its own.
+     */
+    private volatile boolean robotStatisticsEnabled;
+
+    /**
+     * The statistics about the fields visited by each robot of this world, mapped by the IDs of the robots.
+     */
+    private final Map<String, TraceStatistics> robotStatistics = new ConcurrentHashMap<>();
+
+    /**
+     * The number of actions performed by the robots of this world, excluding those of its swarm.
+     */
+    private final LongAdder actionCount = new LongAdder();
+
+    /**
+     * The number of currently open update batches.
+     */
+    private int updateBatchDepth;
+
+    /**
+     * Whether an update has been triggered while an update batch was open.
+     */
+    private boolean updatePending;
+
+    /**
+     * The step number assigned to the next transition traced in this world.
+     */
+    private final AtomicInteger nextStep = new AtomicInteger();
+
+    /**
+     * The reason why the execution in this world has been cancelled or {@code null} if it has not been cancelled.
+     */
+    private volatile @Nullable CancellationReason cancellationReason;
+
+    /**
+     * The execution profile of this world.
+     */
+    private ExecutionProfile executionProfile = ExecutionProfile.INTERACTIVE;
+
+    /**
+     * Whether the actions of the robots of this world are recorded in their traces.
+     */
+    private boolean traceRecording = true;
+
+    /**
+     * The policy of the traces of robots added to this world.
+     */
+    private TracePolicy tracePolicy = TracePolicy.ALL;
+
+    /**
+     * How the crashes of the robots of this world are signalled.
+     */
+    private CrashMode crashMode = CrashMode.THROW;
+
+    /**
+     * The printer of the states of the robots of this world that have trace printing enabled.
+     */
+    private final TracePrinter tracePrinter = new TracePrinter();
+
+    /**
+     * The directory in which the traces of robots added to this world spill their entries or {@code null} if traces
+     * are kept in memory only.
+     */
+    private @Nullable Path traceLogDirectory;
+
+    /**
+     * The directory of this world inside the {@linkplain #traceLogDirectory trace log directory} or {@code null} if it
+     * has not been created yet.
+     */
+    private @Nullable Path worldTraceLogDirectory;
 
     /**
      * The fields of this world.
@@ -102,9 +222,45 @@ public class KarelWorld {
      */
     private boolean drawTurnedOffRobots = true;
 
+    /**
+     * Whether to draw a heat map of the visited fields.
+     */
+    private boolean drawHeatmap;
+
+    /**
+     * The total number of coins lying on the fields of this world.
+     */
+    private final LongAdder coinsOnBoard = new LongAdder();
+
+    /**
+     * The number of robots placed in this world.
+     */
+    private final AtomicInteger robotCount = new AtomicInteger();
+
+    /**
+     * The number of robots in this world that are still turned on.
+     */
+    private final AtomicInteger turnedOnRobotCount = new AtomicInteger();
+
+    /**
+     * The number of horizontal walls placed in this world.
+     */
+    private int horizontalWallCount;
+
+    /**
+     * The number of vertical walls placed in this world.
+     */
+    private int verticalWallCount;
+
+    /**
+     * The number of blocks placed in this world.
+     */
+    private int blockCount;
+
 
     /**
-     * Constructs and initializes a world with the specified size.
+     * Constructs and initializes a world with the specified size. All fields of the world are stored
+     * {@linkplain WorldStorageType#DENSE densely}.
      *
      * @param width  the width of the newly constructed world
      * @param height the height of the newly constructed world
@@ -112,6 +268,35 @@ public class KarelWorld {
      * @throws RuntimeException if the world size is smaller than one
      */
     public KarelWorld(final int width, final int height) {
+        this(width, height, WorldStorageType.DENSE);
+    }
+
+    /**
+     * Constructs and initializes a world with the specified size. The storage of the world is selected based on its
+     * size and the specified expected density, so large worlds may materialize their fields lazily.
+     *
+     * @param width           the width of the newly constructed world
+     * @param height          the height of the newly constructed world
+     * @param expectedDensity the expected fraction of fields that will contain entities
+     *
+     * @throws RuntimeException if the world size is smaller than one
+     * @see WorldStorageType#select(int, int, double)
+     */
+    public KarelWorld(final int width, final int height, final double expectedDensity) {
+        this(width, height, WorldStorageType.select(width, height, expectedDensity));
+    }
+
+    /**
+     * Constructs and initializes a world with the specified size whose fields are held by a storage created by the
+     * specified factory.
+     *
+     * @param width          the width of the newly constructed world
+     * @param height         the height of the newly constructed world
+     * @param storageFactory the factory creating the storage of the world, e.g. a {@link WorldStorageType}
+     *
+     * @throws RuntimeException if the world size is smaller than one
+     */
+    public KarelWorld(final int width, final int height, final WorldStorage.Factory storageFactory) {
         System.setProperty("sun.java2d.dpiaware", "false");
         System.setProperty("sun.java2d.uiScale", "1.0");
         if (width < 1 || height < 1) {
@@ -120,13 +305,8 @@ public class KarelWorld {
 
         this.height = height;
         this.width = width;
-
-        fields = new Field[height][width];
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                fields[y][x] = new Field(this, x, y);
-            }
-        }
+        this.storage = storageFactory.create(this);
+        this.robotIndex = new RobotIndex(width, height);
     }
 
     /**
@@ -135,9 +315,25 @@ public class KarelWorld {
      * @param robot the robot to place
      */
     public void addRobot(final Robot robot) {
-        fields[robot.getY()][robot.getX()].getEntities().add(robot);
-        robot.setId(Integer.toString(robotIdGenerator.nextInt()));
-        traces.put(robot.getId(), new RobotTrace());
+        lockField(robot.getX(), robot.getY());
+        try {
+            storage.getField(robot.getX(), robot.getY()).getEntities().add(robot);
+            entityAdded(robot);
+        } finally {
+            unlockField(robot.getX(), robot.getY());
+        }
+        synchronized (robotIdGenerator) {
+            robot.setId(Integer.toString(robotIdGenerator.nextInt()));
+        }
+        final Path logDirectory = getWorldTraceLogDirectory();
+        final RobotTrace trace = logDirectory == null
+            ? new RobotTrace()
+            : new RobotTrace(logDirectory.resolve("robot-" + robot.getId() + ".trace"));
+        trace.setPolicy(tracePolicy);
+        traces.put(robot.getId(), trace);
+        if (traceRecording) {
+            recordVisit(robot, robot.getX(), robot.getY(), nextStep.get());
+        }
         triggerUpdate();
         sleep();
     }
@@ -184,10 +380,13 @@ public class KarelWorld {
     /**
      * Gathers a list of all field entities on this world.
      *
+     * <p>If the storage of this world materializes fields lazily, only the fields that have been materialized are
+     * returned.
+     *
      * @return a list of all field entities on this world
      */
     public List<Field> getFields() {
-        return Arrays.stream(fields).flatMap(Arrays::stream).toList();
+        return StreamSupport.stream(storage.spliterator(), false).toList();
     }
 
     /**
@@ -196,12 +395,21 @@ public class KarelWorld {
      * @return all field entities on this world
      */
     public List<FieldEntity> getAllFieldEntities() {
-        return Stream.of(fields).flatMap(Stream::of)
+        return StreamSupport.stream(storage.spliterator(), false)
             .map(Field::getEntities)
             .flatMap(Collection::stream)
             .toList();
     }
 
+    /**
+     * Returns the storage holding the fields of this world.
+     *
+     * @return the storage holding the fields of this world
+     */
+    public WorldStorage getStorage() {
+        return storage;
+    }
+
     /**
      * Returns the current delay in milliseconds of this world.
      *
@@ -220,6 +428,272 @@ public class KarelWorld {
         this.delay = delay;
     }
 
+    /**
+     * Returns the executor currently interleaving the robot programs of this world.
+     *
+     * @return the running executor or {@code null} if there is none
+     */
+    @Nullable RobotExecutor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Sets the executor currently interleaving the robot programs of this world.
+     *
+     * @param executor the running executor or {@code null} if there is none
+     */
+    void setExecutor(final @Nullable RobotExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Returns true if this world is in concurrent mode.
+     *
+     * @return true if this world is in concurrent mode
+     */
+    public boolean isConcurrent() {
+        return regionLocks != null;
+    }
+
+    /**
+     * Sets whether this world is in concurrent mode.
+     *
+     * <p>In concurrent mode, the robots of this world may act from several threads at once. Every access to a field
+     * is guarded by the lock of the region of 16 x 16 fields containing it, so robots acting in different regions do
+     * not block each other. Since a consistent
+     * snapshot of the whole world cannot be taken while robots are acting, no entity states are saved in concurrent
+     * mode, so it is best combined with the {@link ExecutionProfile#TURBO} profile.
+     *
+     * <p>Only the actions and sensors of robots and the creation of robots are thread-safe. Walls, blocks and coins
+     * must be placed, and the mode must be switched, while no robot is acting. Each robot must only be used by one
+     * thread at a time.
+     *
+     * @param concurrent true if this world should be in concurrent mode
+     */
+    public void setConcurrent(final boolean concurrent) {
+        this.regionLocks = concurrent ? new RegionLocks(width, height) : null;
+    }
+
+    /**
+     * Acquires the lock guarding the field at the specified coordinate if this world is in concurrent mode.
+     *
+     * @param x the X coordinate of the field
+     * @param y the Y coordinate of the field
+     */
+    private void lockField(final int x, final int y) {
+        if (regionLocks != null) {
+            regionLocks.lock(x, y);
+        }
+    }
+
+    /**
+     * Releases the lock guarding the field at the specified coordinate if this world is in concurrent mode.
+     *
+     * @param x the X coordinate of the field
+     * @param y the Y coordinate of the field
+     */
+    private void unlockField(final int x, final int y) {
+        if (regionLocks != null) {
+            regionLocks.unlock(x, y);
+        }
+    }
+
+    /**
+     * Cancels the execution in this world. From now on, every action and sensor call of a robot of this world throws
+     * an {@link ExecutionCancelledException} with the specified reason, until this world is {@linkplain #reset()
+     * reset}. If the execution has already been cancelled, the original reason is kept.
+     *
+     * <p>This method may be called from any thread, e.g. by a {@link Watchdog}. The cancellation is cooperative, so a
+     * program that neither acts nor senses is not stopped.
+     *
+     * @param reason the reason for the cancellation
+     */
+    public void cancel(final CancellationReason reason) {
+        if (cancellationReason == null) {
+            cancellationReason = reason;
+        }
+    }
+
+    /**
+     * Returns the reason why the execution in this world has been cancelled.
+     *
+     * @return the reason of the cancellation or {@code null} if the execution has not been cancelled
+     */
+    public @Nullable CancellationReason getCancellationReason() {
+        return cancellationReason;
+    }
+
+    /**
+     * Returns true if the execution in this world has been cancelled.
+     *
+     * @return true if the execution in this world has been cancelled
+     */
+    public boolean isCancelled() {
+        return cancellationReason != null;
+    }
+
+    /**
+     * Throws an {@link ExecutionCancelledException} if the execution in this world has been cancelled.
+     *
+     * @throws ExecutionCancelledException if the execution in this world has been cancelled
+     */
+    void checkCancelled() {
+        final CancellationReason reason = cancellationReason;
+        if (reason != null) {
+            throw new ExecutionCancelledException(reason);
+        }
+    }
+
+    /**
+     * Returns the execution profile of this world.
+     *
+     * @return the execution profile of this world
+     */
+    public ExecutionProfile getExecutionProfile() {
+        return executionProfile;
+    }
+
+    /**
+     * Sets the execution profile of this world. Switching to {@link ExecutionProfile#TURBO} disables trace recording
+     * and switching to {@link ExecutionProfile#INTERACTIVE} enables it again, so traces that are needed in turbo mode
+     * have to be requested via {@link #setTraceRecording(boolean)} after setting the profile.
+     *
+     * @param executionProfile the new execution profile
+     */
+    public void setExecutionProfile(final ExecutionProfile executionProfile) {
+        this.executionProfile = executionProfile;
+        this.traceRecording = executionProfile.isInteractive();
+    }
+
+    /**
+     * Returns true if the actions of the robots of this world are recorded in their traces.
+     *
+     * @return true if the actions of the robots are recorded
+     */
+    public boolean isTraceRecording() {
+        return traceRecording;
+    }
+
+    /**
+     * Sets whether the actions of the robots of this world are recorded in their traces. Actions are counted towards
+     * the {@linkplain #getActionLimit() action limit} either way.
+     *
+     * @param traceRecording true if the actions of the robots should be recorded
+     */
+    public void setTraceRecording(final boolean traceRecording) {
+        this.traceRecording = traceRecording;
+    }
+
+    /**
+     * Returns how the crashes of the robots of this world are signalled.
+     *
+     * @return the crash mode of this world
+     */
+    public CrashMode getCrashMode() {
+        return crashMode;
+    }
+
+    /**
+     * Sets how the crashes of the robots of this world are signalled. Defaults to {@link CrashMode#THROW}.
+     *
+     * @param crashMode the new crash mode of this world
+     */
+    public void setCrashMode(final CrashMode crashMode) {
+        this.crashMode = crashMode;
+    }
+
+    /**
+     * Returns the printer of the states of the robots of this world that have
+     * {@linkplain Robot#setPrintTrace(boolean) trace printing} enabled.
+     *
+     * @return the trace printer of this world
+     */
+    public TracePrinter getTracePrinter() {
+        return tracePrinter;
+    }
+
+    /**
+     * Records the crash of the specified robot in its trace. Has to be called right after the failing action has been
+     * traced.
+     *
+     * @param robot  the crashed robot
+     * @param reason the reason why the robot crashed
+     */
+    void recordCrash(final Robot robot, final CrashReason reason) {
+        final RobotTrace trace = robot.getId() == null ? null : traces.get(robot.getId());
+        if (traceRecording && trace != null) {
+            trace.recordCrash(reason, nextStep.get() - 1);
+        }
+    }
+
+    /**
+     * Signals the crash of a robot on the specified field according to the {@linkplain #getCrashMode() crash mode}
+     * of this world.
+     *
+     * @param reason the reason why the robot crashed
+     * @param x      the X coordinate of the field the robot crashed on
+     * @param y      the Y coordinate of the field the robot crashed on
+     *
+     * @throws RobotCrashedException unless the crash mode is {@link CrashMode#RECORD}
+     */
+    void signalCrash(final CrashReason reason, final int x, final int y) {
+        switch (crashMode) {
+            case THROW -> {
+                System.err.println("Robot crashed!");
+                throw new RobotCrashedException(reason, x, y);
+            }
+            case STACKLESS -> throw new StacklessRobotCrashedException(reason, x, y);
+            case RECORD -> {
+                // the robot has been turned off, which is all that is left to do
+            }
+        }
+    }
+
+    /**
+     * Returns the policy of the traces of robots added to this world.
+     *
+     * @return the trace policy of this world
+     */
+    public TracePolicy getTracePolicy() {
+        return tracePolicy;
+    }
+
+    /**
+     * Sets the policy determining which actions of the robots of this world are recorded in their traces. The policy
+     * applies to the traces of all robots already placed in this world as well as those added afterwards. Actions
+     * are counted towards the {@linkplain #getActionLimit() action limit} regardless of the policy.
+     *
+     * @param tracePolicy the new trace policy of this world
+     *
+     * @throws IllegalStateException if the policy is bounded and a trace has already spilled entries to its log
+     * @see RobotTrace#setPolicy(TracePolicy)
+     */
+    public void setTracePolicy(final TracePolicy tracePolicy) {
+        this.tracePolicy = tracePolicy;
+        for (final RobotTrace trace : traces.values()) {
+            trace.setPolicy(tracePolicy);
+        }
+    }
+
+    /**
+     * Sets the policy determining which actions of the specified robot are recorded in its trace, overriding the
+     * {@linkplain #setTracePolicy(TracePolicy) policy of this world} until that is changed again.
+     *
+     * @param robot       the robot whose trace policy to set
+     * @param tracePolicy the new trace policy of the robot
+     *
+     * @throws IllegalArgumentException if the robot has not been placed in this world
+     * @throws IllegalStateException    if the policy is bounded and the trace has already spilled entries to its log
+     * @see RobotTrace#setPolicy(TracePolicy)
+     */
+    public void setTracePolicy(final Robot robot, final TracePolicy tracePolicy) {
+        final RobotTrace trace = robot.getId() == null ? null : traces.get(robot.getId());
+        if (trace == null) {
+            throw new IllegalArgumentException("Robot has not been placed in this world: " + robot.getId());
+        }
+        trace.setPolicy(tracePolicy);
+    }
+
     /**
      * Returns true if turned off robots are drawn.
      *
@@ -238,6 +712,141 @@ public class KarelWorld {
         this.drawTurnedOffRobots = drawTurnedOffRobots;
     }
 
+    /**
+     * Returns true if a heat map of the visited fields is drawn.
+     *
+     * @return true if a heat map of the visited fields is drawn
+     */
+    public boolean isDrawHeatmap() {
+        return drawHeatmap;
+    }
+
+    /**
+     * Sets whether a heat map of the fields visited by the robots of this world should be drawn over the board. The
+     * heat map is based on the {@linkplain #getStatistics() statistics} of this world.
+     *
+     * @param drawHeatmap true if a heat map of the visited fields should be drawn
+     */
+    public void setDrawHeatmap(final boolean drawHeatmap) {
+        this.drawHeatmap = drawHeatmap;
+        triggerUpdate();
+    }
+
+    /**
+     * Returns the statistics about the fields visited by all robots of this world. The statistics are updated while
+     * the actions of the robots are {@linkplain #isTraceRecording() recorded}.
+     *
+     * @return the statistics about the fields visited by all robots
+     */
+    public TraceStatistics getStatistics() {
+        final TraceStatistics current = statistics;
+        return current != null ? current : createStatistics();
+    }
+
+    /**
+     * Creates the statistics about the fields visited by all robots of this world unless they already exist.
+     *
+     * @return the statistics about the fields visited by all robots
+     */
+    private synchronized TraceStatistics createStatistics() {
+        if (statistics == null) {
+            statistics = new TraceStatistics(width, height);
+        }
+        return statistics;
+    }
+
+    /**
+     * Returns true if statistics are kept for each robot of this world on its own.
+     *
+     * @return true if statistics are kept for each robot
+     */
+    public boolean isRobotStatistics() {
+        return robotStatisticsEnabled;
+    }
+
+    /**
+     * Sets whether statistics are kept for each robot of this world on its own, in addition to the statistics of all
+     * robots together. Only the actions recorded while enabled are included.
+     *
+     * @param robotStatistics true if statistics should be kept for each robot
+     */
+    public void setRobotStatistics(final boolean robotStatistics) {
+        this.robotStatisticsEnabled = robotStatistics;
+    }
+
+    /**
+     * Returns the statistics about the fields visited by the specified robot. The statistics are updated while the
+     * actions of the robot are {@linkplain #isTraceRecording() recorded} and {@linkplain #setRobotStatistics(boolean)
+     * statistics are kept for each robot}.
+     *
+     * @param robot the robot to retrieve its statistics
+     *
+     * @return the statistics about the fields visited by the robot or {@code null} if no action of the robot has been
+     *     recorded in them
+     */
+    public @Nullable TraceStatistics getStatistics(final Robot robot) {
+        return robot == null || robot.getId() == null ? null : robotStatistics.get(robot.getId());
+    }
+
+    /**
+     * Returns the statistics about the fields visited by the specified robot, creating them if necessary.
+     *
+     * @param robot the robot
+     *
+     * @return the statistics of the robot or {@code null} if they are not kept
+     */
+    private @Nullable TraceStatistics getOrCreateStatistics(final Robot robot) {
+        if (!robotStatisticsEnabled || robot.getId() == null) {
+            return null;
+        }
+        return robotStatistics.computeIfAbsent(robot.getId(), id -> new TraceStatistics(width, height));
+    }
+
+    /**
+     * Records that the specified robot entered the specified field at the specified step.
+     *
+     * @param robot the robot
+     * @param x     the X coordinate of the field
+     * @param y     the Y coordinate of the field
+     * @param step  the step at which the field has been entered
+     */
+    private void recordVisit(final Robot robot, final int x, final int y, final int step) {
+        getStatistics().recordVisit(x, y, step);
+        final TraceStatistics own = getOrCreateStatistics(robot);
+        if (own != null) {
+            own.recordVisit(x, y, step);
+        }
+    }
+
+    /**
+     * Records that the specified robot performed the specified number of actions, starting on its current field. The
+     * actions of a run of moves are performed on consecutive fields.
+     *
+     * @param robot       the robot
+     * @param robotAction the action of the robot
+     * @param count       the number of actions
+     */
+    private void recordDwell(final Robot robot, final RobotAction robotAction, final int count) {
+        final TraceStatistics all = getStatistics();
+        final TraceStatistics own = getOrCreateStatistics(robot);
+        if (robotAction != RobotAction.MOVE || count == 1) {
+            all.recordDwell(robot.getX(), robot.getY(), count);
+            if (own != null) {
+                own.recordDwell(robot.getX(), robot.getY(), count);
+            }
+            return;
+        }
+        final Direction direction = robot.getDirection();
+        for (int i = 0; i < count; i++) {
+            final int x = robot.getX() + i * direction.dx;
+            final int y = robot.getY() + i * direction.dy;
+            all.recordDwell(x, y, 1);
+            if (own != null) {
+                own.recordDwell(x, y, 1);
+            }
+        }
+    }
+
     /**
      * Returns all entity states (fields) of this world.
      *
@@ -256,7 +865,7 @@ public class KarelWorld {
      * @return the field of this world at the specified coordinate
      */
     public Field getField(final int x, final int y) {
-        return fields[y][x];
+        return storage.getField(x, y);
     }
 
     /**
@@ -273,82 +882,355 @@ public class KarelWorld {
      *
      * @param robot the robot to retrieve its tracing
      *
-     * @return the previous robot tracing of the specified robot
+     * @return the previous robot tracing of the specified robot or {@code null} if the robot is {@code null} or has no
+     *     trace
      */
     public RobotTrace getTrace(final Robot robot) {
+        final RobotTrace trace = robot == null || robot.getId() == null ? null : traces.get(robot.getId());
+        if (trace == null) {
+            return null;
+        }
+        final var robotTrace = new RobotTrace(trace);
+        robotTrace.trace(robot, RobotAction.NONE);
+        return robotTrace;
+    }
+
+    /**
+     * Returns a read-only view of the trace of the specified robot. Unlike {@link #getTrace(Robot)}, the transitions
+     * are not copied, and the current state of the robot is available through {@link TraceView#getFinalState()}
+     * instead of being appended as a {@link RobotAction#NONE} transition.
+     *
+     * @param robot the robot to retrieve the view of its trace for
+     *
+     * @return a view of the trace of the robot or {@code null} if the robot is {@code null} or has no trace
+     */
+    public @Nullable TraceView getTraceView(final @Nullable Robot robot) {
         if (robot == null) {
             return null;
         }
-        final var robotTrace = new RobotTrace(traces.get(robot.getId()));
-        robotTrace.trace(robot, RobotAction.NONE);
-        return robotTrace;
+        final RobotTrace trace = robot.getId() == null ? null : traces.get(robot.getId());
+        return trace == null ? null : new TraceView(trace, trace.size(), new Robot(robot));
+    }
+
+    /**
+     * Returns read-only views of the traces of all robots of this world, see {@link #getTraceView(Robot)}.
+     *
+     * @return the views of the traces of the robots of this world
+     */
+    public List<TraceView> getTraceViews() {
+        final var views = new ArrayList<TraceView>();
+        for (final var entity : getAllFieldEntities()) {
+            if (entity instanceof final Robot robot) {
+                final TraceView view = getTraceView(robot);
+                if (view != null) {
+                    views.add(view);
+                }
+            }
+        }
+        return views;
+    }
+
+    /**
+     * Returns the directory in which the traces of robots added to this world spill their entries.
+     *
+     * @return the directory of the trace logs or {@code null} if traces are kept in memory only
+     */
+    public @Nullable Path getTraceLogDirectory() {
+        return traceLogDirectory;
+    }
+
+    /**
+     * Sets the directory in which the traces of robots added to this world afterwards spill their entries. Since robot
+     * IDs restart in every world, each world writes to its own newly created subdirectory {@code world-<unique>}, so
+     * several worlds can share a directory. The trace of each robot is written to the file {@code robot-<id>.trace}
+     * in that subdirectory, see {@link #getTraceLogPath(Robot)}, which remains after the program has finished and can
+     * be loaded with {@link RobotTrace#load(Path)} once it has been {@linkplain #flushTraces() flushed}.
+     *
+     * @param traceLogDirectory the directory of the trace logs or {@code null} to keep traces in memory only
+     */
+    public synchronized void setTraceLogDirectory(final @Nullable Path traceLogDirectory) {
+        this.traceLogDirectory = traceLogDirectory;
+        this.worldTraceLogDirectory = null;
+    }
+
+    /**
+     * Returns the subdirectory of this world inside the trace log directory, creating it on the first call.
+     *
+     * @return the subdirectory of this world or {@code null} if traces are kept in memory only
+     *
+     * @throws UncheckedIOException if the subdirectory cannot be created
+     */
+    private synchronized @Nullable Path getWorldTraceLogDirectory() {
+        if (traceLogDirectory == null || worldTraceLogDirectory != null) {
+            return worldTraceLogDirectory;
+        }
+        try {
+            Files.createDirectories(traceLogDirectory);
+            worldTraceLogDirectory = Files.createTempDirectory(traceLogDirectory, "world-");
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Could not create trace log directory in " + traceLogDirectory, e);
+        }
+        return worldTraceLogDirectory;
+    }
+
+    /**
+     * Returns the path of the log file the trace of the specified robot spills its entries to.
+     *
+     * @param robot the robot whose trace log to return
+     *
+     * @return the path of the trace log or {@code null} if the robot has no trace or its trace is kept in memory only
+     */
+    public @Nullable Path getTraceLogPath(final @Nullable Robot robot) {
+        final RobotTrace trace = robot == null || robot.getId() == null ? null : traces.get(robot.getId());
+        return trace == null ? null : trace.getLogPath();
+    }
+
+    /**
+     * Writes the entries of all traces of this world that are still kept in memory to their trace logs.
+     *
+     * @see RobotTrace#flush()
+     */
+    public void flushTraces() {
+        for (final RobotTrace trace : traces.values()) {
+            trace.flush();
+        }
+    }
+
+    /**
+     * Returns the previous robots tracing.
+     *
+     * @return the previous robots tracing
+     */
+    public List<RobotTrace> getTraces() {
+        final var traces = new ArrayList<RobotTrace>();
+        final var entities = getAllFieldEntities().stream()
+            .filter(Robot.class::isInstance)
+            .map(Robot.class::cast)
+            .toList();
+        for (final var id : this.traces.keySet()) {
+            final Robot lastState = entities.stream().filter(en -> en.getId().equals(id)).findAny().orElse(null);
+            traces.add(getTrace(lastState));
+        }
+        return traces;
+    }
+
+    /**
+     * Returns the width of this world.
+     *
+     * @return the width of this world.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns {@code true} if the specified robot is located at the specified coordinate.
+     *
+     * @param x     the X coordinate to check with the robot X coordinate
+     * @param y     the Y coordinate to check with the robot Y coordinate
+     * @param robot the robot to check with the coordinate
+     *
+     * @return {@code true} if the specified robot is located at the specified coordinate
+     */
+    protected boolean isAnotherRobotInField(final int x, final int y, final Robot robot) {
+        checkCancelled();
+        lockField(x, y);
+        try {
+            final Field field = storage.peekField(x, y);
+            return field != null && field.getEntities().stream()
+                .anyMatch(e -> e instanceof Robot && e != robot);
+        } finally {
+            unlockField(x, y);
+        }
+    }
+
+    /**
+     * Returns {@code true} if a block is at the specified coordinate.
+     *
+     * @param x the X coordinate to check
+     * @param y the Y coordinate to check
+     *
+     * @return {@code true} if a block is at the specified coordinate
+     */
+    protected boolean isBlockInField(final int x, final int y) {
+        lockField(x, y);
+        try {
+            return storage.isBlockInField(x, y);
+        } finally {
+            unlockField(x, y);
+        }
+    }
+
+    /**
+     * Returns {@code true} if at least one coin is on the specified coordinate.
+     *
+     * @param x the X coordinate to check
+     * @param y the Y coordinate to check
+     *
+     * @return {@code true} if at least one coin is on the specified coordinate
+     */
+    protected boolean isCoinInField(final int x, final int y) {
+        checkCancelled();
+        lockField(x, y);
+        try {
+            return storage.isCoinInField(x, y);
+        } finally {
+            unlockField(x, y);
+        }
+    }
+
+    /**
+     * Returns the number of coins on the specified coordinate.
+     *
+     * @param x the X coordinate to check
+     * @param y the Y coordinate to check
+     *
+     * @return the number of coins on the specified coordinate
+     */
+    int getCoinCount(final int x, final int y) {
+        lockField(x, y);
+        try {
+            final Field field = storage.peekField(x, y);
+            if (field == null) {
+                return 0;
+            }
+            for (final FieldEntity entity : field.getEntities()) {
+                if (entity instanceof final Coin coin) {
+                    return coin.getCount();
+                }
+            }
+            return 0;
+        } finally {
+            unlockField(x, y);
+        }
     }
 
     /**
-     * Returns the previous robots tracing.
+     * Returns {@code true} if an entity standing at the specified coordinate can move one field in the specified
+     * direction, i.e. the target field is within this world, not blocked and not separated by a wall.
      *
-     * @return the previous robots tracing
+     * @param x         the X coordinate of the entity
+     * @param y         the Y coordinate of the entity
+     * @param direction the direction of the movement
+     *
+     * @return {@code true} if the movement is possible
      */
-    public List<RobotTrace> getTraces() {
-        final var traces = new ArrayList<RobotTrace>();
-        final var entities = getAllFieldEntities().stream()
-            .filter(Robot.class::isInstance)
-            .map(Robot.class::cast)
-            .toList();
-        for (final var id : this.traces.keySet()) {
-            final Robot lastState = entities.stream().filter(en -> en.getId().equals(id)).findAny().orElse(null);
-            traces.add(getTrace(lastState));
-        }
-        return traces;
+    boolean isFrontClear(final int x, final int y, final Direction direction) {
+        checkCancelled();
+        return switch (direction) {
+            case UP -> y != height - 1 && !isBlockInField(x, y + 1) && !isWallInField(x, y, true);
+            case LEFT -> x != 0 && !isBlockInField(x - 1, y) && !isWallInField(x - 1, y, false);
+            case DOWN -> y != 0 && !isBlockInField(x, y - 1) && !isWallInField(x, y - 1, true);
+            case RIGHT -> x != width - 1 && !isBlockInField(x + 1, y) && !isWallInField(x, y, false);
+        };
     }
 
     /**
-     * Returns the width of this world.
+     * Returns the passability of all fields of this world in row-major order. Bit {@code d} of the entry at index
+     * {@code y * width + x} is set if an entity standing at {@code (x, y)} can move in the direction with ordinal
+     * {@code d}, as determined by {@link #isFrontClear(int, int, Direction)}.
      *
-     * @return the width of this world.
+     * <p>The mask is cached until the next block or wall is added or removed. For worlds with more than
+     * {@value #PASSABILITY_MASK_CELL_LIMIT} fields, no mask is computed and {@code null} is returned.
+     *
+     * @return the passability of all fields of this world or {@code null} if this world is too large
      */
-    public int getWidth() {
-        return width;
+    byte @Nullable [] getPassabilityMask() {
+        if (passabilityMask != null || (long) width * height > PASSABILITY_MASK_CELL_LIMIT) {
+            return passabilityMask;
+        }
+        final byte all = (byte) ((1 << Direction.values().length) - 1);
+        final byte[] mask = new byte[width * height];
+        Arrays.fill(mask, all);
+        for (int x = 0; x < width; x++) {
+            mask[(height - 1) * width + x] &= (byte) ~(1 << Direction.UP.ordinal());
+            mask[x] &= (byte) ~(1 << Direction.DOWN.ordinal());
+        }
+        for (int y = 0; y < height; y++) {
+            mask[y * width] &= (byte) ~(1 << Direction.LEFT.ordinal());
+            mask[y * width + width - 1] &= (byte) ~(1 << Direction.RIGHT.ordinal());
+        }
+        for (final Field field : storage) {
+            final int x = field.getX();
+            final int y = field.getY();
+            for (final FieldEntity entity : field.getEntities()) {
+                if (entity instanceof Block) {
+                    // nothing can enter a block from any of its neighbors
+                    closeExit(mask, x, y - 1, Direction.UP);
+                    closeExit(mask, x + 1, y, Direction.LEFT);
+                    closeExit(mask, x, y + 1, Direction.DOWN);
+                    closeExit(mask, x - 1, y, Direction.RIGHT);
+                } else if (entity instanceof final Wall wall && wall.isHorizontal()) {
+                    closeExit(mask, x, y, Direction.UP);
+                    closeExit(mask, x, y + 1, Direction.DOWN);
+                } else if (entity instanceof Wall) {
+                    closeExit(mask, x, y, Direction.RIGHT);
+                    closeExit(mask, x + 1, y, Direction.LEFT);
+                }
+            }
+        }
+        passabilityMask = mask;
+        return mask;
     }
 
     /**
-     * Returns {@code true} if the specified robot is located at the specified coordinate.
+     * Returns the fields of this world with coins as a bit set in row-major order. Bit {@code (y * width + x) % 64} of
+     * the entry at index {@code (y * width + x) / 64} is set if at least one coin is on {@code (x, y)}.
      *
-     * @param x     the X coordinate to check with the robot X coordinate
-     * @param y     the Y coordinate to check with the robot Y coordinate
-     * @param robot the robot to check with the coordinate
+     * <p>The mask is computed on the first call and then kept up to date as coins are added and removed, so reading
+     * it never scans the fields of this world again. For worlds with more than {@value #PASSABILITY_MASK_CELL_LIMIT}
+     * fields, no mask is computed and {@code null} is returned.
      *
-     * @return {@code true} if the specified robot is located at the specified coordinate
+     * @return the fields of this world with coins or {@code null} if this world is too large
      */
-    protected boolean isAnotherRobotInField(final int x, final int y, final Robot robot) {
-        return fields[y][x].getEntities().stream()
-            .anyMatch(e -> e instanceof Robot && e != robot);
+    @Nullable AtomicLongArray getCoinMask() {
+        if (coinMask != null || (long) width * height > PASSABILITY_MASK_CELL_LIMIT) {
+            return coinMask;
+        }
+        final AtomicLongArray mask = new AtomicLongArray((width * height + Long.SIZE - 1) / Long.SIZE);
+        for (final Field field : storage) {
+            if (storage.isCoinInField(field.getX(), field.getY())) {
+                final int cell = field.getY() * width + field.getX();
+                mask.getAndAccumulate(cell / Long.SIZE, 1L << cell, (word, bit) -> word | bit);
+            }
+        }
+        coinMask = mask;
+        return mask;
     }
 
     /**
-     * Returns {@code true} if a block is at the specified coordinate.
-     *
-     * @param x the X coordinate to check
-     * @param y the Y coordinate to check
+     * Updates the bit of the specified field in the coin mask, if it has been computed, after coins have been added
+     * to or removed from it.
      *
-     * @return {@code true} if a block is at the specified coordinate
+     * @param x the X coordinate of the field
+     * @param y the Y coordinate of the field
      */
-    protected boolean isBlockInField(final int x, final int y) {
-        return fields[y][x].getEntities().stream()
-            .anyMatch(Block.class::isInstance);
+    private void updateCoinMask(final int x, final int y) {
+        final AtomicLongArray mask = coinMask;
+        if (mask == null) {
+            return;
+        }
+        final int cell = y * width + x;
+        if (storage.isCoinInField(x, y)) {
+            mask.getAndAccumulate(cell / Long.SIZE, 1L << cell, (word, bit) -> word | bit);
+        } else {
+            mask.getAndAccumulate(cell / Long.SIZE, 1L << cell, (word, bit) -> word & ~bit);
+        }
     }
 
     /**
-     * Returns {@code true} if at least one coin is on the specified coordinate.
-     *
-     * @param x the X coordinate to check
-     * @param y the Y coordinate to check
+     * Clears the bit of the specified direction in the passability mask entry of the specified field, if the field is
+     * within this world.
      *
-     * @return {@code true} if at least one coin is on the specified coordinate
+     * @param mask      the passability mask
+     * @param x         the X coordinate of the field
+     * @param y         the Y coordinate of the field
+     * @param direction the direction that is not passable
      */
-    protected boolean isCoinInField(final int x, final int y) {
-        return fields[y][x].getEntities().stream()
-            .anyMatch(Coin.class::isInstance);
+    private void closeExit(final byte[] mask, final int x, final int y, final Direction direction) {
+        if (x >= 0 && x < width && y >= 0 && y < height) {
+            mask[y * width + x] &= (byte) ~(1 << direction.ordinal());
+        }
     }
 
     /**
@@ -403,8 +1285,12 @@ public class KarelWorld {
      * @return {@code true} if the specified wall and its orientation are on the specified field
      */
     protected boolean isWallInField(final int x, final int y, final boolean horizontal) {
-        return fields[y][x].getEntities().stream()
-            .anyMatch(e -> e instanceof Wall && ((Wall) e).isHorizontal() == horizontal);
+        lockField(x, y);
+        try {
+            return storage.isWallInField(x, y, horizontal);
+        } finally {
+            unlockField(x, y);
+        }
     }
 
     /**
@@ -417,21 +1303,63 @@ public class KarelWorld {
      * @return {@code true} if a coin was removed at the specified coordinate after this call
      */
     protected boolean pickCoin(final int x, final int y) {
-        final Iterator<FieldEntity> iterator = fields[y][x].getEntities().iterator();
-        while (iterator.hasNext()) {
-            final FieldEntity entity = iterator.next();
-            if (entity instanceof final Coin coin) {
-                // if coins already placed in this field, decrease number
-                if (coin.getCount() > 1) {
-                    coin.setCount(coin.getCount() - 1);
-                } else {
-                    iterator.remove();
+        if (removeCoin(x, y)) {
+            triggerUpdate();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes a coin from the specified coordinate without triggering an update of the graphical user interface.
+     *
+     * @param x the X coordinate to remove the coin from
+     * @param y the Y coordinate to remove the coin from
+     *
+     * @return {@code true} if a coin was removed at the specified coordinate
+     */
+    boolean removeCoin(final int x, final int y) {
+        return removeCoins(x, y, 1) == 1;
+    }
+
+    /**
+     * Removes up to the specified number of coins from the specified coordinate without triggering an update of the
+     * graphical user interface.
+     *
+     * @param x             the X coordinate to remove the coins from
+     * @param y             the Y coordinate to remove the coins from
+     * @param numberOfCoins the maximum number of coins to remove
+     *
+     * @return the number of coins removed
+     */
+    int removeCoins(final int x, final int y, final int numberOfCoins) {
+        lockField(x, y);
+        try {
+            final Field field = storage.peekField(x, y);
+            if (field == null) {
+                return 0;
+            }
+            final Iterator<FieldEntity> iterator = field.getEntities().iterator();
+            while (iterator.hasNext()) {
+                final FieldEntity entity = iterator.next();
+                if (entity instanceof final Coin coin) {
+                    final int removed = Math.min(coin.getCount(), numberOfCoins);
+                    // if more coins are placed in this field, decrease number
+                    if (coin.getCount() > removed) {
+                        coin.setCount(coin.getCount() - removed);
+                    } else {
+                        iterator.remove();
+                        storage.entityRemoved(coin);
+                        updateCoinMask(x, y);
+                    }
+                    coinsOnBoard.add(-removed);
+                    return removed;
                 }
-                triggerUpdate();
-                return true;
             }
+            return 0;
+        } finally {
+            unlockField(x, y);
         }
-        return false;
     }
 
     /**
@@ -443,10 +1371,12 @@ public class KarelWorld {
     public void placeBlock(final int x, final int y) {
         checkXCoordinate(x);
         checkYCoordinate(y);
-        if (fields[y][x].getEntities().stream().anyMatch(Block.class::isInstance)) {
+        if (isBlockInField(x, y)) {
             return;
         }
-        fields[y][x].getEntities().add(new Block(x, y));
+        final Block block = new Block(x, y);
+        storage.getField(x, y).getEntities().add(block);
+        entityAdded(block);
         triggerUpdate();
     }
 
@@ -483,7 +1413,9 @@ public class KarelWorld {
         if (isWallInField(x, y, horizontal)) {
             return;
         }
-        fields[y][x].getEntities().add(new Wall(x, y, horizontal));
+        final Wall wall = new Wall(x, y, horizontal);
+        storage.getField(x, y).getEntities().add(wall);
+        entityAdded(wall);
         triggerUpdate();
     }
 
@@ -502,19 +1434,38 @@ public class KarelWorld {
         if (numberOfCoins < 1) {
             throw new IllegalArgumentException("Number of coins must be greater than 0!");
         }
+        addCoins(x, y, numberOfCoins);
+        triggerUpdate();
+    }
 
-        for (final FieldEntity entity : fields[y][x].getEntities()) {
-            if (entity instanceof final Coin coin) {
-                // if coins already placed in this field, increase number
-                coin.setCount(coin.getCount() + numberOfCoins);
-                triggerUpdate();
-                return;
+    /**
+     * Adds the specified number of coins to the specified coordinate without validation and without triggering an
+     * update of the graphical user interface.
+     *
+     * @param x             the X coordinate of the coins
+     * @param y             the Y coordinate of the coins
+     * @param numberOfCoins the number of coins to add
+     */
+    void addCoins(final int x, final int y, final int numberOfCoins) {
+        coinsOnBoard.add(numberOfCoins);
+        lockField(x, y);
+        try {
+            final Field field = storage.getField(x, y);
+            for (final FieldEntity entity : field.getEntities()) {
+                if (entity instanceof final Coin coin) {
+                    // if coins already placed in this field, increase number
+                    coin.setCount(coin.getCount() + numberOfCoins);
+                    return;
+                }
             }
+            // else place first coin
+            final Coin c = new Coin(x, y, numberOfCoins);
+            field.getEntities().add(c);
+            storage.entityAdded(c);
+            updateCoinMask(x, y);
+        } finally {
+            unlockField(x, y);
         }
-        // else place first coin
-        final Coin c = new Coin(x, y, numberOfCoins);
-        fields[y][x].getEntities().add(c);
-        triggerUpdate();
     }
 
     /**
@@ -529,7 +1480,8 @@ public class KarelWorld {
         final int y = entity.getY();
         checkXCoordinate(x);
         checkYCoordinate(y);
-        fields[y][x].getEntities().add(entity);
+        storage.getField(x, y).getEntities().add(entity);
+        entityAdded(entity);
         triggerUpdate();
     }
 
@@ -557,10 +1509,16 @@ public class KarelWorld {
     public void removeFieldEntity(final int x, final int y, final Predicate<? super FieldEntity> filter) {
         checkXCoordinate(x);
         checkYCoordinate(y);
-        final var it = fields[y][x].getEntities().iterator();
+        final Field field = storage.peekField(x, y);
+        if (field == null) {
+            return;
+        }
+        final var it = field.getEntities().iterator();
         while (it.hasNext()) {
-            if (filter.test(it.next())) {
+            final FieldEntity entity = it.next();
+            if (filter.test(entity)) {
                 it.remove();
+                entityRemoved(entity);
                 triggerUpdate();
                 return;
             }
@@ -579,9 +1537,10 @@ public class KarelWorld {
         final int y = entity.getY();
         checkXCoordinate(x);
         checkYCoordinate(y);
-        final Field field = fields[y][x];
-        if (field.containsEntity(entity)) {
+        final Field field = storage.peekField(x, y);
+        if (field != null && field.containsEntity(entity)) {
             field.removeEntity(entity);
+            entityRemoved(entity);
             triggerUpdate();
         }
     }
@@ -590,12 +1549,97 @@ public class KarelWorld {
      * Resets this world by removing all entities from the fields.
      */
     public void reset() {
-        Stream.of(fields).flatMap(Stream::of)
-            .map(Field::getEntities)
-            .forEach(Collection::clear);
+        storage.clear();
+        robotIndex.clear();
+        passabilityMask = null;
+        coinMask = null;
+        cancellationReason = null;
+        if (swarm != null) {
+            swarm.clear();
+        }
+        coinsOnBoard.reset();
+        robotCount.set(0);
+        turnedOnRobotCount.set(0);
+        horizontalWallCount = 0;
+        verticalWallCount = 0;
+        blockCount = 0;
         triggerUpdate();
     }
 
+    /**
+     * Updates the aggregate statistics of this world after the specified entity has been added to a field.
+     *
+     * @param entity the entity that has been added
+     */
+    private void entityAdded(final FieldEntity entity) {
+        storage.entityAdded(entity);
+        if (entity instanceof final Robot robot) {
+            robotIndex.add(robot);
+        } else if (entity instanceof Coin) {
+            updateCoinMask(entity.getX(), entity.getY());
+        }
+        countEntity(entity, 1);
+    }
+
+    /**
+     * Updates the aggregate statistics of this world after the specified entity has been removed from a field.
+     *
+     * @param entity the entity that has been removed
+     */
+    private void entityRemoved(final FieldEntity entity) {
+        storage.entityRemoved(entity);
+        if (entity instanceof final Robot robot) {
+            robotIndex.remove(robot, robot.getX(), robot.getY());
+        } else if (entity instanceof Coin) {
+            updateCoinMask(entity.getX(), entity.getY());
+        }
+        countEntity(entity, -1);
+    }
+
+    /**
+     * Adds the contribution of the specified entity to the aggregate statistics of this world.
+     *
+     * @param entity the entity to count
+     * @param sign   {@code 1} if the entity has been added or {@code -1} if it has been removed
+     */
+    private void countEntity(final FieldEntity entity, final int sign) {
+        if (entity instanceof final Coin coin) {
+            coinsOnBoard.add((long) sign * coin.getCount());
+        } else if (entity instanceof final Robot robot) {
+            robotCount.addAndGet(sign);
+            if (robot.isTurnedOn()) {
+                turnedOnRobotCount.addAndGet(sign);
+            }
+        } else if (entity instanceof final Wall wall) {
+            if (wall.isHorizontal()) {
+                horizontalWallCount += sign;
+            } else {
+                verticalWallCount += sign;
+            }
+            passabilityMask = null;
+        } else if (entity instanceof Block) {
+            blockCount += sign;
+            passabilityMask = null;
+        }
+    }
+
+    /**
+     * Updates the aggregate statistics of this world after the specified robot has been turned off.
+     *
+     * @param robot the robot that has been turned off
+     */
+    void robotTurnedOff(final Robot robot) {
+        lockField(robot.getX(), robot.getY());
+        try {
+            final Field field = storage.peekField(robot.getX(), robot.getY());
+            if (field != null && field.getEntities().contains(robot)) {
+                turnedOnRobotCount.decrementAndGet();
+            }
+        } finally {
+            unlockField(robot.getX(), robot.getY());
+        }
+    }
+
     /**
      * Saves the current entity state (fields) of this world.
      */
@@ -638,10 +1682,11 @@ public class KarelWorld {
      * Puts this world to sleep for the specified amount time given by {@link #delay} (in
      * milliseconds).
      *
-     * <p>In headless mode, this method does nothing.</p>
+     * <p>In headless mode, under the {@link ExecutionProfile#TURBO} profile or while an update batch is open, this
+     * method does nothing.</p>
      */
     protected void sleep() {
-        if (GraphicsEnvironment.isHeadless()) {
+        if (!executionProfile.isInteractive() || updateBatchDepth > 0 || GraphicsEnvironment.isHeadless()) {
             return;
         }
         try {
@@ -658,20 +1703,111 @@ public class KarelWorld {
      * @param robotAction the action of the robot to trace
      */
     void trace(final Robot robot, final RobotAction robotAction) {
-        final var robotTrace = traces.get(robot.getId());
-        robotTrace.trace(robot, robotAction);
+        trace(robot, robotAction, 1);
+    }
+
+    /**
+     * Traces a run of the specified number of consecutive identical actions of the specified robot, which is counted
+     * as that many actions but recorded as a single compact entry.
+     *
+     * @param robot       the robot to trace in its state before the first action of the run
+     * @param robotAction the action of the robot to trace
+     * @param count       the number of actions in the run
+     */
+    void trace(final Robot robot, final RobotAction robotAction, final int count) {
+        checkCancelled();
+        if (executor != null) {
+            executor.actionBoundary();
+        }
+        final RobotTrace trace = robot.getId() == null ? null : traces.get(robot.getId());
+        if (traceRecording && trace != null) {
+            trace.trace(robot, robotAction, count);
+            recordDwell(robot, robotAction, count);
+        }
+        actionCount.add(count);
+        checkActionLimit();
+    }
+
+    /**
+     * Counts an action of a robot that did not change anything and is therefore not traced, e.g. picking up all coins
+     * from an empty field. Like a traced action, it checks the cancellation, passes the action boundary of the
+     * executor and counts towards the action limit.
+     */
+    void countIdleAction() {
+        checkCancelled();
+        if (executor != null) {
+            executor.actionBoundary();
+        }
+        actionCount.add(1);
+        checkActionLimit();
+    }
+
+    /**
+     * Returns the step number of the next transition traced in this world and advances the step counter.
+     *
+     * @return the step number of the next transition
+     */
+    int nextStep() {
+        return nextStep.getAndIncrement();
+    }
+
+    /**
+     * Reserves the specified number of consecutive step numbers for a run of transitions.
+     *
+     * @param count the number of step numbers to reserve
+     *
+     * @return the first reserved step number
+     */
+    int nextSteps(final int count) {
+        return nextStep.getAndAdd(count);
     }
 
     /**
      * Triggers that an update of the graphical user interface is needed.
+     * <p>Under the {@link ExecutionProfile#TURBO} profile, this method does nothing. While an update batch is open,
+     * the update is deferred until the batch is closed.</p>
      */
     protected void triggerUpdate() {
-        if (saveStates) {
+        if (!executionProfile.isInteractive()) {
+            return;
+        }
+        if (updateBatchDepth > 0) {
+            updatePending = true;
+            return;
+        }
+        if (saveStates && regionLocks == null) {
             saveEntityState();
         }
         updateGui();
     }
 
+    /**
+     * Opens an update batch. Until the batch is closed, updates and sleeps are suppressed, so that a sequence of
+     * actions results in a single update. Batches may be nested.
+     *
+     * @see #endUpdateBatch()
+     */
+    void beginUpdateBatch() {
+        updateBatchDepth++;
+    }
+
+    /**
+     * Closes the innermost update batch. When the outermost batch is closed, a single update is triggered if any
+     * update has been triggered within the batch.
+     *
+     * @throws IllegalStateException if no update batch is open
+     * @see #beginUpdateBatch()
+     */
+    void endUpdateBatch() {
+        if (updateBatchDepth == 0) {
+            throw new IllegalStateException("No update batch is open");
+        }
+        if (--updateBatchDepth == 0 && updatePending) {
+            updatePending = false;
+            triggerUpdate();
+        }
+    }
+
     /**
      * Updates the graphical user interface window.
      * <p>In headless mode, this method does nothing.</p>
@@ -694,8 +1830,57 @@ public class KarelWorld {
      * @param oldY  the old Y coordinate of the robot
      */
     protected void updateRobotField(final Robot robot, final int oldX, final int oldY) {
-        if (fields[oldY][oldX].getEntities().removeIf(entity -> entity == robot)) {
-            fields[robot.getY()][robot.getX()].getEntities().add(robot);
+        relocateRobot(robot, oldX, oldY);
+        if (traceRecording && (robot.getX() != oldX || robot.getY() != oldY)) {
+            recordVisit(robot, robot.getX(), robot.getY(), nextStep.get() - 1);
+        }
+    }
+
+    /**
+     * Updates the entity array after the specified robot walked in a straight line from the old coordinate to its
+     * current one and records every field it entered on its way.
+     *
+     * @param robot the robot that walked
+     * @param oldX  the old X coordinate of the robot
+     * @param oldY  the old Y coordinate of the robot
+     */
+    void updateRobotFieldAfterWalk(final Robot robot, final int oldX, final int oldY) {
+        relocateRobot(robot, oldX, oldY);
+        if (traceRecording) {
+            final int steps = Math.abs(robot.getX() - oldX) + Math.abs(robot.getY() - oldY);
+            final int dx = Integer.signum(robot.getX() - oldX);
+            final int dy = Integer.signum(robot.getY() - oldY);
+            // the field i is entered by the i-th of the last steps moves
+            final int firstStep = nextStep.get() - steps;
+            for (int i = 1; i <= steps; i++) {
+                recordVisit(robot, oldX + i * dx, oldY + i * dy, firstStep + i - 1);
+            }
+        }
+    }
+
+    /**
+     * Moves the specified robot from the field at the old coordinate to the field at its current coordinate.
+     *
+     * @param robot the robot to move
+     * @param oldX  the old X coordinate of the robot
+     * @param oldY  the old Y coordinate of the robot
+     */
+    private void relocateRobot(final Robot robot, final int oldX, final int oldY) {
+        final int x = robot.getX();
+        final int y = robot.getY();
+        if (regionLocks != null) {
+            regionLocks.lock(oldX, oldY, x, y);
+        }
+        try {
+            final Field oldField = storage.peekField(oldX, oldY);
+            if (oldField != null && oldField.getEntities().removeIf(entity -> entity == robot)) {
+                storage.getField(x, y).getEntities().add(robot);
+                robotIndex.move(robot, oldX, oldY);
+            }
+        } finally {
+            if (regionLocks != null) {
+                regionLocks.unlock(oldX, oldY, x, y);
+            }
         }
     }
 
@@ -748,7 +1933,7 @@ public class KarelWorld {
      * @param color the color to set
      */
     public void setFieldColor(final int x, final int y, @Nullable final Color color) {
-        fields[y][x].setFieldColor(color);
+        storage.getField(x, y).setFieldColor(color);
     }
 
     /**
@@ -760,7 +1945,8 @@ public class KarelWorld {
      * @return the color of the field at the specified coordinates or {@code null} if no color is set
      */
     public @Nullable Color getFieldColor(final int x, final int y) {
-        return fields[y][x].getFieldColor();
+        final Field field = storage.peekField(x, y);
+        return field == null ? null : field.getFieldColor();
     }
 
     /**
@@ -785,13 +1971,15 @@ public class KarelWorld {
     }
 
     /**
-     * Returns the amount of traces stored. This is equivalent to the amount of actions performed in the world.
+     * Returns the amount of actions performed in the world. Unless trace recording has been disabled, this is
+     * equivalent to the amount of traces stored.
      *
-     * @return the amount of traces stored
+     * @return the amount of actions performed in the world
      */
     @ApiStatus.Internal
     public long getActionCount() {
-        return traces.values().stream().mapToLong(rt -> rt.getTransitions().size()).sum();
+        final long swarmActionCount = swarm == null ? 0 : swarm.getActionCount();
+        return actionCount.sum() + swarmActionCount;
     }
 
     /**
@@ -809,12 +1997,186 @@ public class KarelWorld {
      * @return the amount of robots in this world
      */
     public long getRobotCount() {
-        return Arrays.stream(fields)
-            .flatMap(Arrays::stream)
-            .map(Field::getEntities)
-            .flatMap(Collection::stream)
-            .filter(Robot.class::isInstance)
-            .count();
+        return robotCount.get();
+    }
+
+    /**
+     * Returns the swarm of lightweight robots living in this world. The swarm is created on the first call.
+     *
+     * @return the swarm of this world
+     * @see RobotSwarm
+     */
+    public RobotSwarm getSwarm() {
+        if (swarm == null) {
+            swarm = new RobotSwarm(this);
+        }
+        return swarm;
+    }
+
+    /**
+     * Returns the swarm of lightweight robots living in this world or {@code null} if it has not been created yet.
+     *
+     * @return the swarm of this world or {@code null}
+     */
+    @Nullable RobotSwarm peekSwarm() {
+        return swarm;
+    }
+
+    /**
+     * Returns all robots whose euclidean distance to the specified coordinate is at most the specified radius.
+     *
+     * <p>The robots are looked up in a spatial index, so the cost of this query is proportional to the number of
+     * robots in the queried area.
+     *
+     * @param x      the X coordinate of the center
+     * @param y      the Y coordinate of the center
+     * @param radius the maximum distance of the robots to the center
+     *
+     * @return all robots within the specified radius around the specified coordinate
+     *
+     * @throws IllegalArgumentException if the radius is negative
+     */
+    public List<Robot> robotsNear(final int x, final int y, final int radius) {
+        return robotIndex.near(x, y, radius);
+    }
+
+    /**
+     * Returns the robot with the smallest euclidean distance to the specified robot, excluding the robot itself.
+     *
+     * @param robot the robot to find the nearest other robot of
+     *
+     * @return the nearest other robot or {@code null} if there is no other robot in this world
+     */
+    public @Nullable Robot nearestRobot(final Robot robot) {
+        return robotIndex.nearest(robot);
+    }
+
+    /**
+     * Returns all robots located in the rectangle spanned by the specified corners. The rectangle is clipped to the
+     * borders of this world, so e.g. {@code robotsInRect(0, y, getWidth() - 1, y)} returns all robots in row
+     * {@code y}.
+     *
+     * @param x1 the X coordinate of one corner of the rectangle (inclusive)
+     * @param y1 the Y coordinate of one corner of the rectangle (inclusive)
+     * @param x2 the X coordinate of the opposite corner of the rectangle (inclusive)
+     * @param y2 the Y coordinate of the opposite corner of the rectangle (inclusive)
+     *
+     * @return all robots located in the specified rectangle
+     */
+    public List<Robot> robotsInRect(final int x1, final int y1, final int x2, final int y2) {
+        return robotIndex.inRect(x1, y1, x2, y2);
+    }
+
+    /**
+     * Returns a snapshot of the aggregate statistics of this world.
+     *
+     * <p>The statistics are maintained incrementally by the operations of this world, so this method runs in constant
+     * time. Entities that are modified directly, e.g. via {@link Coin#setCount(int)} or by altering the entity list of
+     * a {@link Field}, are not reflected in the statistics.
+     *
+     * @return a snapshot of the aggregate statistics of this world
+     */
+    public WorldStats getStats() {
+        return new WorldStats(
+            coinsOnBoard.sum(),
+            robotCount.get(),
+            turnedOnRobotCount.get(),
+            horizontalWallCount,
+            verticalWallCount,
+            blockCount
+        );
+    }
+
+    /**
+     * Returns a hash of the current state of this world, covering its size and the state of all robots, including
+     * those of its swarm, coins, walls and blocks. Worlds in the same state have the same hash, regardless of their
+     * storage, the order in which their entities were placed and the IDs of their robots, so the hash is suitable for
+     * comparing the outcomes of programs.
+     *
+     * @return a hash of the current state of this world
+     */
+    public long getStateHash() {
+        long hash = 0;
+        for (final Field field : storage) {
+            for (final FieldEntity entity : field.getEntities()) {
+                // summing keeps the hash independent of the iteration order
+                hash += hashEntity(entity);
+            }
+        }
+        if (swarm != null) {
+            for (int i = 0; i < swarm.size; i++) {
+                hash += hashEntity(1, swarm.xs[i], swarm.ys[i], robotState(
+                    swarm.directions[i],
+                    swarm.coins[i],
+                    swarm.off[i]
+                ));
+            }
+        }
+        return mix(hash ^ mix(((long) width << 32) | height));
+    }
+
+    /**
+     * Returns the hash of the state of the specified entity.
+     *
+     * @param entity the entity to hash
+     *
+     * @return the hash of the state of the entity
+     */
+    private static long hashEntity(final FieldEntity entity) {
+        if (entity instanceof final Robot robot) {
+            return hashEntity(1, robot.getX(), robot.getY(), robotState(
+                robot.getDirection().ordinal(),
+                robot.getNumberOfCoins(),
+                robot.isTurnedOff()
+            ));
+        } else if (entity instanceof final Coin coin) {
+            return hashEntity(2, coin.getX(), coin.getY(), coin.getCount());
+        } else if (entity instanceof final Wall wall) {
+            return hashEntity(3, wall.getX(), wall.getY(), wall.isHorizontal() ? 1 : 0);
+        } else if (entity instanceof Block) {
+            return hashEntity(4, entity.getX(), entity.getY(), 0);
+        }
+        return hashEntity(entity.getClass().getName().hashCode(), entity.getX(), entity.getY(), 0);
+    }
+
+    /**
+     * Returns the hash of an entity with the specified type and state at the specified coordinate.
+     *
+     * @param type  the type of the entity
+     * @param x     the X coordinate of the entity
+     * @param y     the Y coordinate of the entity
+     * @param state the state of the entity
+     *
+     * @return the hash of the entity
+     */
+    private static long hashEntity(final int type, final int x, final int y, final long state) {
+        return mix(mix(mix(type ^ 0x9E3779B97F4A7C15L) ^ x) ^ ((long) y << 32) ^ state);
+    }
+
+    /**
+     * Packs the state of a robot into a single value.
+     *
+     * @param direction     the ordinal of the direction the robot is facing
+     * @param numberOfCoins the number of coins the robot carries
+     * @param off           whether the robot is turned off
+     *
+     * @return the packed state of the robot
+     */
+    private static long robotState(final int direction, final int numberOfCoins, final boolean off) {
+        return ((long) numberOfCoins << 3) | (off ? 4 : 0) | direction;
+    }
+
+    /**
+     * Scrambles the bits of the specified value (the finalizer of the SplitMix64 generator).
+     *
+     * @param value the value to scramble
+     *
+     * @return the scrambled value
+     */
+    private static long mix(final long value) {
+        long z = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
     }
 
     /**
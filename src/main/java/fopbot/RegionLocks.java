@@ -0,0 +1,134 @@
+package fopbot;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The locks guarding the fields of a {@link KarelWorld} in concurrent mode.
+ *
+ * <p>The world is divided into square regions of {@value #REGION_SIZE} x {@value #REGION_SIZE} fields, and each region
+ * is guarded by one of a fixed number of lock stripes. Robots acting in different regions thus rarely contend for the
+ * same lock. Operations that touch two fields, e.g. a robot moving across a region border, acquire both stripes in
+ * ascending order, so that no deadlock can occur.
+ *
+ * @see KarelWorld#setConcurrent(boolean)
+ */
+class RegionLocks {
+
+    /**
+     * The binary logarithm of the edge length of a region.
+     */
+    private static final int REGION_SHIFT = 4;
+
+    /**
+     * The edge length of a region.
+     */
+    static final int REGION_SIZE = 1 << REGION_SHIFT;
+
+    /**
+     * The maximum number of lock stripes.
+     */
+    private static final int MAX_STRIPES = 1 << 12;
+
+    /**
+     * The number of regions in a row of the world.
+     */
+    private final int regionsPerRow;
+
+    /**
+     * The lock stripes.
+     */
+    private final @NotNull ReentrantLock[] stripes;
+
+    /**
+     * Constructs the locks for a world with the specified dimensions.
+     *
+     * @param width  the width of the world
+     * @param height the height of the world
+     */
+    RegionLocks(final int width, final int height) {
+        this.regionsPerRow = ((width - 1) >> REGION_SHIFT) + 1;
+        final long regions = (long) regionsPerRow * (((height - 1) >> REGION_SHIFT) + 1);
+        this.stripes = new ReentrantLock[(int) Math.min(regions, MAX_STRIPES)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Returns the number of lock stripes.
+     *
+     * @return the number of lock stripes
+     */
+    int getStripeCount() {
+        return stripes.length;
+    }
+
+    /**
+     * Returns the index of the stripe guarding the field at the specified coordinate.
+     *
+     * @param x the X coordinate of the field
+     * @param y the Y coordinate of the field
+     *
+     * @return the index of the stripe guarding the field
+     */
+    private int stripe(final int x, final int y) {
+        final long region = (long) (y >> REGION_SHIFT) * regionsPerRow + (x >> REGION_SHIFT);
+        return (int) Math.floorMod(region, (long) stripes.length);
+    }
+
+    /**
+     * Acquires the lock guarding the field at the specified coordinate.
+     *
+     * @param x the X coordinate of the field
+     * @param y the Y coordinate of the field
+     */
+    void lock(final int x, final int y) {
+        stripes[stripe(x, y)].lock();
+    }
+
+    /**
+     * Releases the lock guarding the field at the specified coordinate.
+     *
+     * @param x the X coordinate of the field
+     * @param y the Y coordinate of the field
+     */
+    void unlock(final int x, final int y) {
+        stripes[stripe(x, y)].unlock();
+    }
+
+    /**
+     * Acquires the locks guarding the fields at the specified coordinates in ascending stripe order.
+     *
+     * @param x1 the X coordinate of the first field
+     * @param y1 the Y coordinate of the first field
+     * @param x2 the X coordinate of the second field
+     * @param y2 the Y coordinate of the second field
+     */
+    void lock(final int x1, final int y1, final int x2, final int y2) {
+        final int first = stripe(x1, y1);
+        final int second = stripe(x2, y2);
+        stripes[Math.min(first, second)].lock();
+        if (first != second) {
+            stripes[Math.max(first, second)].lock();
+        }
+    }
+
+    /**
+     * Releases the locks guarding the fields at the specified coordinates.
+     *
+     * @param x1 the X coordinate of the first field
+     * @param y1 the Y coordinate of the first field
+     * @param x2 the X coordinate of the second field
+     * @param y2 the Y coordinate of the second field
+     */
+    void unlock(final int x1, final int y1, final int x2, final int y2) {
+        final int first = stripe(x1, y1);
+        final int second = stripe(x2, y2);
+        if (first != second) {
+            stripes[Math.max(first, second)].unlock();
+        }
+        stripes[Math.min(first, second)].unlock();
+    }
+}
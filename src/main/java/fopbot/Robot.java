@@ -55,6 +55,17 @@ public class Robot extends FieldEntity {
      */
     private boolean off = false;
 
+    /**
+     * The reason why the robot crashed or {@code null} if it has not crashed.
+     */
+    private @Nullable CrashReason crashReason;
+
+    /**
+     * The reason of the crash that is currently being performed by {@link #crash()} or {@code null} if the robot is not
+     * crashing.
+     */
+    private @Nullable CrashReason pendingCrashReason;
+
     /**
      * The virtual world this robot is placed in.
      */
@@ -187,19 +198,48 @@ public class Robot extends FieldEntity {
     }
 
     /**
-     * Creates a copy of another {@code Robot}.
+     * Creates a copy of another {@code Robot}. The state is read through the getters, so robots whose state is held
+     * elsewhere, e.g. by a {@link RobotSwarm}, are copied correctly.
      *
      * @param robot the robot to copy
      */
     protected Robot(final @NotNull Robot robot) {
-        super(robot.getX(), robot.getY());
-        this.numberOfCoins = robot.numberOfCoins;
-        this.direction = robot.direction;
-        this.id = robot.id;
-        this.printTrace = robot.printTrace;
-        this.off = robot.off;
+        this(
+            robot,
+            robot.getX(),
+            robot.getY(),
+            robot.getDirection(),
+            robot.getNumberOfCoins(),
+            robot.isTurnedOff()
+        );
+    }
+
+    /**
+     * Creates a copy of another {@code Robot} in a different state.
+     *
+     * @param robot         the robot to copy
+     * @param x             the x-coordinate of the copy
+     * @param y             the y-coordinate of the copy
+     * @param direction     the direction of the copy
+     * @param numberOfCoins the number of coins of the copy
+     * @param off           whether the copy is turned off
+     */
+    Robot(
+        final @NotNull Robot robot,
+        final int x,
+        final int y,
+        final @NotNull Direction direction,
+        final int numberOfCoins,
+        final boolean off
+    ) {
+        super(x, y);
+        this.numberOfCoins = numberOfCoins;
+        this.direction = direction;
+        this.id = robot.getId();
+        this.printTrace = robot.isPrintTraceEnabled();
+        this.off = off;
         this.world = robot.world;
-        this.robotFamily = robot.robotFamily;
+        this.robotFamily = robot.getRobotFamily();
     }
 
     /**
@@ -218,17 +258,76 @@ public class Robot extends FieldEntity {
         this.direction = direction;
     }
 
+    /**
+     * Constructs a robot handle that is bound to the specified world without being added to it. Subclasses using this
+     * constructor manage the state of the robot themselves.
+     *
+     * @param world the world the robot belongs to
+     */
+    Robot(final @NotNull KarelWorld world) {
+        super(0, 0);
+        this.world = world;
+        this.robotFamily = DEFAULT_ROBOT_FAMILY;
+    }
+
     /**
      * Causes the robot to crash.
      *
-     * <p>This is called when the robot performs an invalid action.
+     * <p>This is called when the robot performs an invalid action. The crash itself is performed by {@link #crash()},
+     * so subclasses overriding it still take part in every crash.
+     *
+     * @param reason the reason why the robot crashes
      *
-     * @throws RuntimeException always, indicating the robot has crashed
+     * @throws RobotCrashedException unless the crash mode of the world is {@link CrashMode#RECORD}
      */
+    protected void crash(final @NotNull CrashReason reason) {
+        pendingCrashReason = reason;
+        try {
+            crash();
+        } finally {
+            pendingCrashReason = null;
+        }
+    }
+
+    /**
+     * Causes the robot to crash for the reason passed to {@link #crash(CrashReason)} or, if called directly, because it
+     * has been blocked. The robot is turned off and the crash is signalled according to the
+     * {@linkplain KarelWorld#getCrashMode() crash mode} of its world.
+     *
+     * @throws RobotCrashedException unless the crash mode of the world is {@link CrashMode#RECORD}
+     * @deprecated This method does not know the reason of a crash when overridden; override or call
+     *     {@link #crash(CrashReason)} instead. It is still called for every crash of the robot.
+     */
+    @Deprecated(since = "0.8.3")
     protected void crash() {
+        final CrashReason reason = pendingCrashReason != null ? pendingCrashReason : CrashReason.BLOCKED;
+        world.recordCrash(this, reason);
         turnOff();
-        System.err.println("Robot crashed!");
-        throw new RuntimeException("Robot crashed!");
+        crashReason = reason;
+        world.signalCrash(reason, getX(), getY());
+    }
+
+    /**
+     * Returns the reason why the robot crashed into the field in front of it.
+     *
+     * @return {@link CrashReason#OUT_OF_BOUNDS} if the field is outside the world and {@link CrashReason#BLOCKED}
+     *     otherwise
+     */
+    private @NotNull CrashReason getMoveCrashReason() {
+        final int x = getX() + direction.dx;
+        final int y = getY() + direction.dy;
+        return x < 0 || y < 0 || x >= world.getWidth() || y >= world.getHeight()
+            ? CrashReason.OUT_OF_BOUNDS
+            : CrashReason.BLOCKED;
+    }
+
+    /**
+     * Returns the reason why the robot crashed.
+     *
+     * @return the reason why the robot crashed or {@code null} if it has not crashed
+     */
+    public @Nullable CrashReason getCrashReason() {
+        return crashReason;
     }
 
     /**
@@ -265,13 +364,11 @@ public class Robot extends FieldEntity {
 
     /**
      * Prints the robot's current state to the console in human-readable form.
-     * This is used internally when {@link #printTrace} is enabled.
+     * This is used internally when {@link #printTrace} is enabled. The state is printed asynchronously by the
+     * {@linkplain KarelWorld#getTracePrinter() trace printer} of the world.
      */
     private void printTrace() {
-        final String onOff = off ? "off" : "on";
-        final String trace = "Robot(" + this.getClass().getName() + ") is at (" + getX() + "," + getY()
-            + ") facing " + direction + " with " + numberOfCoins + " coins (Turned " + onOff + ").";
-        System.out.println(trace);
+        world.getTracePrinter().print(this);
     }
 
     @Override
@@ -313,18 +410,53 @@ public class Robot extends FieldEntity {
      * Turns the robot 90 degrees to the left (counter-clockwise).
      */
     public void turnLeft() {
-        world.trace(this, Transition.RobotAction.TURN_LEFT);
+        turnLeft(1);
+    }
+
+    /**
+     * Turns the robot 90 degrees to the right (clockwise).
+     *
+     * <p>This is equivalent to calling {@link #turnLeft()} three times, i.e. three left turns are traced and counted as
+     * actions, but the world is only updated once.
+     */
+    public void turnRight() {
+        turnLeft(3);
+    }
+
+    /**
+     * Turns the robot 180 degrees.
+     *
+     * <p>This is equivalent to calling {@link #turnLeft()} twice, i.e. two left turns are traced and counted as
+     * actions, but the world is only updated once.
+     */
+    public void turnAround() {
+        turnLeft(2);
+    }
+
+    /**
+     * Turns the robot the specified number of times 90 degrees to the left and updates the world once afterwards.
+     *
+     * @param turns the number of left turns
+     */
+    private void turnLeft(final int turns) {
+        for (int i = 0; i < turns; i++) {
+            world.trace(this, Transition.RobotAction.TURN_LEFT);
+            if (off) {
+                continue;
+            }
+
+            direction = switch (direction) {
+                case UP -> Direction.LEFT;
+                case LEFT -> Direction.DOWN;
+                case DOWN -> Direction.RIGHT;
+                case RIGHT -> Direction.UP;
+            };
+        }
+
         if (off) {
             return;
         }
 
-        direction = switch (direction) {
-            case UP -> Direction.LEFT;
-            case LEFT -> Direction.DOWN;
-            case DOWN -> Direction.RIGHT;
-            case RIGHT -> Direction.UP;
-        };
-
         if (printTrace) {
             printTrace();
         }
@@ -359,7 +491,8 @@ public class Robot extends FieldEntity {
     /**
      * Places a coin on the current field and decreases the robot's coin count by one.
      *
-     * @throws RuntimeException if the robot has no coins to place
+     * @throws RobotCrashedException if the robot has no coins to place and the crash mode of the world is not
+     *                               {@link CrashMode#RECORD}
      */
     public void putCoin() {
         world.trace(this, Transition.RobotAction.PUT_COIN);
@@ -371,7 +504,7 @@ public class Robot extends FieldEntity {
             numberOfCoins--;
             world.putCoins(getX(), getY(), 1);
         } else {
-            crash();
+            crash(CrashReason.NO_COINS);
         }
 
         world.sleep();
@@ -380,7 +513,8 @@ public class Robot extends FieldEntity {
     /**
      * Picks up a coin from the current field and increases the robot's coin count by one.
      *
-     * @throws RuntimeException if there is no coin on the field
+     * @throws RobotCrashedException if there is no coin on the field and the crash mode of the world is not
+     *                               {@link CrashMode#RECORD}
      */
     public void pickCoin() {
         world.trace(this, Transition.RobotAction.PICK_COIN);
@@ -391,7 +525,7 @@ public class Robot extends FieldEntity {
         if (world.pickCoin(getX(), getY())) {
             numberOfCoins++;
         } else {
-            crash();
+            crash(CrashReason.NO_COINS);
         }
 
         world.sleep();
@@ -405,58 +539,7 @@ public class Robot extends FieldEntity {
      * @return {@code true} if the robot can move forward; {@code false} otherwise
      */
     public boolean isFrontClear() {
-        final int x = getX();
-        final int y = getY();
-
-        switch (direction) {
-            case UP:
-                if (y == world.getHeight() - 1) {
-                    return false;
-                }
-                if (world.isBlockInField(x, y + 1)) {
-                    return false;
-                }
-                if (world.isWallInField(x, y, true)) {
-                    return false;
-                }
-                break;
-            case LEFT:
-                if (x == 0) {
-                    return false;
-                }
-                if (world.isBlockInField(x - 1, y)) {
-                    return false;
-                }
-                if (world.isWallInField(x - 1, y, false)) {
-                    return false;
-                }
-                break;
-            case DOWN:
-                if (y == 0) {
-                    return false;
-                }
-                if (world.isBlockInField(x, y - 1)) {
-                    return false;
-                }
-                if (world.isWallInField(x, y - 1, true)) {
-                    return false;
-                }
-                break;
-            case RIGHT:
-                if (x == world.getWidth() - 1) {
-                    return false;
-                }
-                if (world.isBlockInField(x + 1, y)) {
-                    return false;
-                }
-                if (world.isWallInField(x, y, false)) {
-                    return false;
-                }
-                break;
-            default:
-                throw new AssertionError();
-        }
-        return true;
+        return world.isFrontClear(getX(), getY(), direction);
     }
 
     /**
@@ -511,7 +594,8 @@ public class Robot extends FieldEntity {
     /**
      * Moves the robot one field forward in the direction it is currently facing.
      *
-     * @throws RuntimeException if the robot cannot move forward due to a non-passable field or is out of world bounds
+     * @throws RobotCrashedException if the robot cannot move forward due to a non-passable field or is out of world
+     *                               bounds and the crash mode of the world is not {@link CrashMode#RECORD}
      */
     public void move() {
         world.trace(this, Transition.RobotAction.MOVE);
@@ -520,44 +604,214 @@ public class Robot extends FieldEntity {
         }
 
         if (!isFrontClear()) {
-            crash();
+            crash(getMoveCrashReason());
+            return;
         }
 
         final int oldX = getX();
         final int oldY = getY();
-        final int newX = switch (direction) {
-            case UP -> oldX;
-            case LEFT -> oldX - 1;
-            case DOWN -> oldX;
-            case RIGHT -> oldX + 1;
-        };
-        final int newY = switch (direction) {
-            case UP -> oldY + 1;
-            case LEFT -> oldY;
-            case DOWN -> oldY - 1;
-            case RIGHT -> oldY;
-        };
-        setXRobot(newX);
-        setYRobot(newY);
+        super.setX(oldX + direction.dx);
+        super.setY(oldY + direction.dy);
 
         if (printTrace) {
             printTrace();
         }
 
-        world.updateRobotField(this, oldX, oldY);
+        world.updateRobotFieldAfterWalk(this, oldX, oldY);
         world.triggerUpdate();
         world.sleep();
     }
 
+    /**
+     * Moves the robot the specified number of fields forward in the direction it is currently facing.
+     *
+     * <p>This is equivalent to calling {@link #move()} {@code steps} times, i.e. each step is traced, counted as a
+     * separate action and printed if trace printing is enabled, and the field of the robot is updated after every
+     * step, but the world is only redrawn and the delay is only applied once after the last step.
+     *
+     * @param steps the number of fields to move
+     *
+     * @throws IllegalArgumentException if the number of steps is negative
+     * @throws RobotCrashedException    if the robot cannot move forward due to a non-passable field or is out of world
+     *                                  bounds, in which case it stops on the last field it could reach, and the crash
+     *                                  mode of the world is not {@link CrashMode#RECORD}
+     */
+    public void move(final int steps) {
+        if (steps < 0) {
+            throw new IllegalArgumentException("Number of steps must not be negative: " + steps);
+        }
+
+        boolean moved = false;
+        for (int i = 0; i < steps; i++) {
+            world.trace(this, Transition.RobotAction.MOVE);
+            if (off) {
+                continue;
+            }
+
+            if (!isFrontClear()) {
+                crash(getMoveCrashReason());
+                return;
+            }
+
+            final int oldX = getX();
+            final int oldY = getY();
+            super.setX(oldX + direction.dx);
+            super.setY(oldY + direction.dy);
+
+            if (printTrace) {
+                printTrace();
+            }
+
+            // keep the field and the spatial index in sync for other robots acting between the steps
+            world.updateRobotFieldAfterWalk(this, oldX, oldY);
+            moved = true;
+        }
+
+        if (moved) {
+            world.triggerUpdate();
+            world.sleep();
+        }
+    }
+
+    /**
+     * Moves the robot forward until the field in front of it is not clear anymore.
+     *
+     * <p>This is equivalent to {@code while (isFrontClear()) move();}, i.e. each step is counted as a separate action,
+     * but the steps are traced as a single compact run and the world is only updated once. Unlike the loop, this
+     * method does nothing if the robot is turned off. If the steps would exceed the action limit of the world, the
+     * robot does not move at all.
+     *
+     * @return the number of fields the robot moved
+     */
+    public int moveUntilBlocked() {
+        if (off) {
+            return 0;
+        }
+
+        final int oldX = getX();
+        final int oldY = getY();
+        int x = oldX;
+        int y = oldY;
+        int steps = 0;
+        while (world.isFrontClear(x, y, direction)) {
+            x += direction.dx;
+            y += direction.dy;
+            steps++;
+        }
+        if (steps == 0) {
+            return 0;
+        }
+
+        world.trace(this, Transition.RobotAction.MOVE, steps);
+        super.setX(x);
+        super.setY(y);
+
+        if (printTrace) {
+            printTrace();
+        }
+
+        world.updateRobotFieldAfterWalk(this, oldX, oldY);
+        world.triggerUpdate();
+        world.sleep();
+        return steps;
+    }
+
+    /**
+     * Picks up all coins from the current field.
+     *
+     * <p>This is equivalent to {@code while (isOnACoin()) pickCoin();}, i.e. each coin is counted as a separate
+     * action, but the actions are traced as a single compact run and the world is only updated once. Unlike the loop,
+     * this method does nothing if the robot is turned off. If the coins would exceed the action limit of the world,
+     * no coin is picked up. If no coin is picked up, the call is counted as a single action that is not traced, so a
+     * loop waiting for coins still reaches the action limit and can be cancelled.
+     *
+     * @return the number of coins picked up
+     */
+    public int pickAllCoins() {
+        final int coins = off ? 0 : world.getCoinCount(getX(), getY());
+        if (coins == 0) {
+            world.countIdleAction();
+            return 0;
+        }
+
+        world.trace(this, Transition.RobotAction.PICK_COIN, coins);
+        // another robot may have picked up some of the coins in the meantime
+        final int picked = world.removeCoins(getX(), getY(), coins);
+        numberOfCoins += picked;
+
+        world.triggerUpdate();
+        world.sleep();
+        return picked;
+    }
+
+    /**
+     * Places the specified number of coins on the current field.
+     *
+     * <p>This is equivalent to calling {@link #putCoin()} {@code numberOfCoins} times, i.e. each coin is counted as a
+     * separate action, but the actions are traced as a single compact run and the world is only updated once. Unlike
+     * the loop, this method does nothing if the robot is turned off.
+     *
+     * @param numberOfCoins the number of coins to place
+     *
+     * @throws IllegalArgumentException if the number of coins is negative
+     * @throws RobotCrashedException    if the robot has fewer coins than it should place, in which case it places all
+     *                                  of its coins before crashing, and the crash mode of the world is not
+     *                                  {@link CrashMode#RECORD}
+     */
+    public void putCoins(final int numberOfCoins) {
+        if (numberOfCoins < 0) {
+            throw new IllegalArgumentException("Number of coins must not be negative: " + numberOfCoins);
+        }
+        if (off) {
+            return;
+        }
+
+        final int coins = Math.min(numberOfCoins, this.numberOfCoins);
+        if (coins > 0) {
+            world.trace(this, Transition.RobotAction.PUT_COIN, coins);
+            this.numberOfCoins -= coins;
+            world.putCoins(getX(), getY(), coins);
+            world.sleep();
+        }
+
+        if (coins < numberOfCoins) {
+            // traces the failing action and crashes
+            putCoin();
+        }
+    }
+
     /**
      * Checks whether the robot currently holds at least one coin.
      *
      * @return {@code true} if the robot has one or more coins, otherwise {@code false}
      */
     public boolean hasAnyCoins() {
+        checkCancelled();
         return numberOfCoins > 0;
     }
 
+    /**
+     * Checks whether the execution of the world of this robot has been cancelled, so that programs that only poll
+     * sensors without acting can be cancelled as well. Robots copied without a world are never cancelled.
+     *
+     * @throws ExecutionCancelledException if the execution of the world has been cancelled
+     */
+    void checkCancelled() {
+        // robots copied without a world, e.g. for snapshots, have none
+        if (world != null) {
+            world.checkCancelled();
+        }
+    }
+
+    /**
+     * Returns the world this robot is placed in.
+     *
+     * @return the world this robot is placed in
+     */
+    @NotNull KarelWorld getWorld() {
+        return world;
+    }
+
     /**
      * Returns the robot's ID.
      *
@@ -603,7 +857,11 @@ public class Robot extends FieldEntity {
      */
     public void turnOff() {
         world.trace(this, Transition.RobotAction.TURN_OFF);
+        final boolean wasOn = !off;
         off = true;
+        if (wasOn) {
+            world.robotTurnedOff(this);
+        }
         world.triggerUpdate();
     }
 
@@ -665,6 +923,7 @@ public class Robot extends FieldEntity {
      * @return {@code true} if facing {@link Direction#UP}, otherwise {@code false}
      */
     public boolean isFacingUp() {
+        checkCancelled();
         return direction == Direction.UP;
     }
 
@@ -674,6 +933,7 @@ public class Robot extends FieldEntity {
      * @return {@code true} if facing {@link Direction#DOWN}, otherwise {@code false}
      */
     public boolean isFacingDown() {
+        checkCancelled();
         return direction == Direction.DOWN;
     }
 
@@ -683,6 +943,7 @@ public class Robot extends FieldEntity {
      * @return {@code true} if facing {@link Direction#LEFT}, otherwise {@code false}
      */
     public boolean isFacingLeft() {
+        checkCancelled();
         return direction == Direction.LEFT;
     }
 
@@ -692,6 +953,7 @@ public class Robot extends FieldEntity {
      * @return {@code true} if facing {@link Direction#RIGHT}, otherwise {@code false}
      */
     public boolean isFacingRight() {
+        checkCancelled();
         return direction == Direction.RIGHT;
     }
 
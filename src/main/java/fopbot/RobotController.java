@@ -0,0 +1,22 @@
+package fopbot;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Decides the action of a robot in each tick of a {@link TickSimulation}.
+ *
+ * <p>Controllers of different robots may be called concurrently. They must only read the state of the world through
+ * the given {@link TickView} and must not act on robots directly.
+ */
+@FunctionalInterface
+public interface RobotController {
+
+    /**
+     * Decides the action the robot performs in the current tick.
+     *
+     * @param view a read-only view of the robot and the world at the beginning of the tick
+     *
+     * @return the intended action of the robot
+     */
+    @NotNull RobotIntent decide(@NotNull TickView view);
+}
@@ -0,0 +1,93 @@
+package fopbot;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Serial;
+
+/**
+ * Thrown when a robot crashes, e.g. because it tried to move into a wall.
+ *
+ * @see CrashMode
+ */
+public class RobotCrashedException extends RuntimeException {
+
+    /**
+     * The version of the serialized form of this exception.
+     */
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The reason why the robot crashed.
+     */
+    private final @NotNull CrashReason reason;
+
+    /**
+     * The X coordinate of the field the robot crashed on.
+     */
+    private final int x;
+
+    /**
+     * The Y coordinate of the field the robot crashed on.
+     */
+    private final int y;
+
+    /**
+     * Constructs an exception for a robot that crashed on the specified field.
+     *
+     * @param reason the reason why the robot crashed
+     * @param x      the X coordinate of the field the robot crashed on
+     * @param y      the Y coordinate of the field the robot crashed on
+     */
+    public RobotCrashedException(final @NotNull CrashReason reason, final int x, final int y) {
+        this(reason, x, y, true);
+    }
+
+    /**
+     * Constructs an exception for a robot that crashed on the specified field, optionally without capturing a stack
+     * trace.
+     *
+     * @param reason             the reason why the robot crashed
+     * @param x                  the X coordinate of the field the robot crashed on
+     * @param y                  the Y coordinate of the field the robot crashed on
+     * @param writableStackTrace whether the stack trace should be captured
+     */
+    protected RobotCrashedException(
+        final @NotNull CrashReason reason,
+        final int x,
+        final int y,
+        final boolean writableStackTrace
+    ) {
+        super("Robot crashed!", null, writableStackTrace, writableStackTrace);
+        this.reason = reason;
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Returns the reason why the robot crashed.
+     *
+     * @return the reason why the robot crashed
+     */
+    public @NotNull CrashReason getReason() {
+        return reason;
+    }
+
+    /**
+     * Returns the X coordinate of the field the robot crashed on.
+     *
+     * @return the X coordinate of the field the robot crashed on
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * Returns the Y coordinate of the field the robot crashed on.
+     *
+     * @return the Y coordinate of the field the robot crashed on
+     */
+    public int getY() {
+        return y;
+    }
+}
@@ -0,0 +1,244 @@
+package fopbot;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Runs the programs of several robots of a {@link KarelWorld} concurrently, each on its own virtual thread.
+ *
+ * <p>Although every program has its own thread, only one of them runs at any time. Whenever a robot of the world is
+ * about to perform an action, its program hands control back to the executor, and the {@link RobotScheduler} decides
+ * which program may perform its next action. Thus, the actions of the robots are interleaved deterministically, the
+ * world is never mutated concurrently, and a program that is waiting for its turn only costs a parked virtual thread.
+ * Each program runs with the world as its {@linkplain World#runWith(KarelWorld, Runnable) global world}.
+ *
+ * <pre>{@code
+ * final RobotExecutor executor = new RobotExecutor(world, RobotScheduler.seededRandom(42));
+ * executor.submit(alice, robot -> { while (robot.isFrontClear()) robot.move(); });
+ * executor.submit(bob, robot -> robot.turnLeft());
+ * executor.run();
+ * }</pre>
+ *
+ * <p>Actions of {@link RobotSwarm} robots are not interleaved, since they do not pass through the action tracing of
+ * the world.
+ */
+public class RobotExecutor {
+
+    /**
+     * The task whose program is running on the current thread or {@code null} if the current thread is not running a
+     * program.
+     */
+    private static final ThreadLocal<Task> CURRENT_TASK = new ThreadLocal<>();
+
+    /**
+     * The world the robots act in.
+     */
+    private final @NotNull KarelWorld world;
+
+    /**
+     * The scheduler deciding which program may perform its next action.
+     */
+    private final @NotNull RobotScheduler scheduler;
+
+    /**
+     * The submitted tasks in the order of their submission.
+     */
+    private final @NotNull List<Task> tasks = new ArrayList<>();
+
+    /**
+     * The semaphore released by a program when it hands control back to the executor.
+     */
+    private final @NotNull Semaphore control = new Semaphore(0);
+
+    /**
+     * Whether this executor has already been run.
+     */
+    private boolean started;
+
+    /**
+     * Constructs an executor for the specified world which interleaves the actions round-robin.
+     *
+     * @param world the world the robots act in
+     */
+    public RobotExecutor(final @NotNull KarelWorld world) {
+        this(world, RobotScheduler.roundRobin());
+    }
+
+    /**
+     * Constructs an executor for the specified world which interleaves the actions using the specified scheduler.
+     *
+     * @param world     the world the robots act in
+     * @param scheduler the scheduler deciding which program may perform its next action
+     */
+    public RobotExecutor(final @NotNull KarelWorld world, final @NotNull RobotScheduler scheduler) {
+        this.world = world;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Submits the specified program for execution. Programs are numbered in the order of their submission, which is
+     * the order they are presented to the {@link RobotScheduler} in.
+     *
+     * @param program the program to run
+     *
+     * @throws IllegalStateException if this executor has already been run
+     */
+    public void submit(final @NotNull Runnable program) {
+        if (started) {
+            throw new IllegalStateException("Executor has already been run");
+        }
+        tasks.add(new Task(tasks.size(), program));
+    }
+
+    /**
+     * Submits the specified program of the specified robot for execution.
+     *
+     * @param robot   the robot to pass to the program
+     * @param program the program to run
+     * @param <R>     the type of the robot
+     *
+     * @throws IllegalStateException if this executor has already been run
+     * @see #submit(Runnable)
+     */
+    public <R extends Robot> void submit(final @NotNull R robot, final @NotNull Consumer<? super R> program) {
+        submit(() -> program.accept(robot));
+    }
+
+    /**
+     * Runs all submitted programs and waits until they have terminated.
+     *
+     * <p>A program that throws an exception, e.g. because its robot crashed, terminates while the other programs
+     * continue. After all programs have terminated, the exception of the program that failed first is rethrown, with
+     * the exceptions of the other failed programs attached as suppressed exceptions.
+     *
+     * @throws IllegalStateException if this executor has already been run or another executor is running in the world
+     * @throws RuntimeException      if a program has failed
+     */
+    public void run() {
+        if (started) {
+            throw new IllegalStateException("Executor has already been run");
+        }
+        if (world.getExecutor() != null) {
+            throw new IllegalStateException("Another executor is already running in this world");
+        }
+        started = true;
+        world.setExecutor(this);
+        final List<Task> running = new ArrayList<>(tasks);
+        final List<Task> failed = new ArrayList<>();
+        try {
+            for (final Task task : tasks) {
+                Thread.ofVirtual().name("robot-program-" + task.number).start(task);
+            }
+            int current = -1;
+            while (!running.isEmpty()) {
+                current = scheduler.next(current, running.size());
+                final Task task = running.get(current);
+                task.turn.release();
+                control.acquireUninterruptibly();
+                if (task.terminated) {
+                    running.remove(current--);
+                    if (task.failure != null) {
+                        failed.add(task);
+                    }
+                }
+            }
+        } finally {
+            world.setExecutor(null);
+        }
+        if (!failed.isEmpty()) {
+            final Throwable first = failed.get(0).failure;
+            final RuntimeException exception = first instanceof final RuntimeException e
+                ? e
+                : new RuntimeException("Robot program failed", first);
+            for (final Task task : failed.subList(1, failed.size())) {
+                exception.addSuppressed(task.failure);
+            }
+            throw exception;
+        }
+    }
+
+    /**
+     * Hands control back to this executor if the current thread is running one of its programs and waits until the
+     * program is scheduled again. This is called by the world before a robot performs an action.
+     */
+    void actionBoundary() {
+        final Task task = CURRENT_TASK.get();
+        if (task == null || task.owner() != this) {
+            return;
+        }
+        control.release();
+        task.turn.acquireUninterruptibly();
+    }
+
+    /**
+     * A submitted program and the state of its execution.
+     */
+    private final class Task implements Runnable {
+
+        /**
+         * The number of the task in the order of submission.
+         */
+        private final int number;
+
+        /**
+         * The program to run.
+         */
+        private final @NotNull Runnable program;
+
+        /**
+         * The semaphore released by the executor when the program may continue.
+         */
+        private final @NotNull Semaphore turn = new Semaphore(0);
+
+        /**
+         * Whether the program has terminated.
+         */
+        private volatile boolean terminated;
+
+        /**
+         * The exception thrown by the program or {@code null} if it has not failed.
+         */
+        private @Nullable Throwable failure;
+
+        /**
+         * Constructs a task for the specified program.
+         *
+         * @param number  the number of the task in the order of submission
+         * @param program the program to run
+         */
+        private Task(final int number, final @NotNull Runnable program) {
+            this.number = number;
+            this.program = program;
+        }
+
+        /**
+         * Returns the executor owning this task.
+         *
+         * @return the executor owning this task
+         */
+        private RobotExecutor owner() {
+            return RobotExecutor.this;
+        }
+
+        @Override
+        public void run() {
+            CURRENT_TASK.set(this);
+            turn.acquireUninterruptibly();
+            try {
+                // the program runs on its own thread, which does not inherit the global world of the caller
+                World.runWith(world, program);
+            } catch (final Throwable t) {
+                failure = t;
+            } finally {
+                terminated = true;
+                CURRENT_TASK.remove();
+                control.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package fopbot;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A spatial index over the robots of a {@link KarelWorld}, implemented as a uniform grid of buckets.
+ *
+ * <p>Each bucket covers a square of {@value #BUCKET_SIZE} x {@value #BUCKET_SIZE} fields and holds the robots located
+ * in it. Only non-empty buckets are allocated, so the index also works for very large worlds. Queries only visit the
+ * buckets overlapping the queried area, so their cost is proportional to the number of robots found rather than to
+ * the number of robots in the world.
+ *
+ * <p>All operations are synchronized, so robots of a world in concurrent mode can be moved from several threads.
+ */
+class RobotIndex {
+
+    /**
+     * The binary logarithm of the edge length of a bucket.
+     */
+    private static final int BUCKET_SHIFT = 3;
+
+    /**
+     * The edge length of a bucket.
+     */
+    static final int BUCKET_SIZE = 1 << BUCKET_SHIFT;
+
+    /**
+     * The width of the indexed world.
+     */
+    private final int width;
+
+    /**
+     * The height of the indexed world.
+     */
+    private final int height;
+
+    /**
+     * The non-empty buckets, mapped by their packed bucket coordinate.
+     */
+    private final @NotNull Map<Long, List<Robot>> buckets = new HashMap<>();
+
+    /**
+     * Constructs an empty index for a world with the specified dimensions.
+     *
+     * @param width  the width of the indexed world
+     * @param height the height of the indexed world
+     */
+    RobotIndex(final int width, final int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Returns the key of the bucket with the specified bucket coordinate.
+     *
+     * @param bx the X coordinate of the bucket
+     * @param by the Y coordinate of the bucket
+     *
+     * @return the key of the bucket
+     */
+    private static long key(final int bx, final int by) {
+        return ((long) by << 32) | (bx & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Adds the specified robot at its current position to this index.
+     *
+     * @param robot the robot to add
+     */
+    synchronized void add(final @NotNull Robot robot) {
+        buckets.computeIfAbsent(
+            key(robot.getX() >> BUCKET_SHIFT, robot.getY() >> BUCKET_SHIFT),
+            k -> new ArrayList<>()
+        ).add(robot);
+    }
+
+    /**
+     * Removes the specified robot from this index, assuming it is located at the specified position.
+     *
+     * @param robot the robot to remove
+     * @param x     the X coordinate the robot was indexed at
+     * @param y     the Y coordinate the robot was indexed at
+     */
+    synchronized void remove(final @NotNull Robot robot, final int x, final int y) {
+        final long key = key(x >> BUCKET_SHIFT, y >> BUCKET_SHIFT);
+        final List<Robot> bucket = buckets.get(key);
+        if (bucket == null) {
+            return;
+        }
+        bucket.removeIf(r -> r == robot);
+        if (bucket.isEmpty()) {
+            buckets.remove(key);
+        }
+    }
+
+    /**
+     * Updates the position of the specified robot in this index after it has moved.
+     *
+     * @param robot the robot that has moved
+     * @param oldX  the previous X coordinate of the robot
+     * @param oldY  the previous Y coordinate of the robot
+     */
+    synchronized void move(final @NotNull Robot robot, final int oldX, final int oldY) {
+        if (oldX >> BUCKET_SHIFT == robot.getX() >> BUCKET_SHIFT
+            && oldY >> BUCKET_SHIFT == robot.getY() >> BUCKET_SHIFT) {
+            return;
+        }
+        remove(robot, oldX, oldY);
+        add(robot);
+    }
+
+    /**
+     * Removes all robots from this index.
+     */
+    synchronized void clear() {
+        buckets.clear();
+    }
+
+    /**
+     * Returns all robots located in the specified rectangle. The rectangle is clipped to the world borders.
+     *
+     * @param x1 the X coordinate of one corner of the rectangle (inclusive)
+     * @param y1 the Y coordinate of one corner of the rectangle (inclusive)
+     * @param x2 the X coordinate of the opposite corner of the rectangle (inclusive)
+     * @param y2 the Y coordinate of the opposite corner of the rectangle (inclusive)
+     *
+     * @return all robots located in the specified rectangle
+     */
+    synchronized @NotNull List<Robot> inRect(final int x1, final int y1, final int x2, final int y2) {
+        final int minX = Math.max(0, Math.min(x1, x2));
+        final int maxX = Math.min(width - 1, Math.max(x1, x2));
+        final int minY = Math.max(0, Math.min(y1, y2));
+        final int maxY = Math.min(height - 1, Math.max(y1, y2));
+        final List<Robot> result = new ArrayList<>();
+        if (minX > maxX || minY > maxY) {
+            return result;
+        }
+        for (int by = minY >> BUCKET_SHIFT; by <= maxY >> BUCKET_SHIFT; by++) {
+            for (int bx = minX >> BUCKET_SHIFT; bx <= maxX >> BUCKET_SHIFT; bx++) {
+                final List<Robot> bucket = buckets.get(key(bx, by));
+                if (bucket == null) {
+                    continue;
+                }
+                for (final Robot robot : bucket) {
+                    if (robot.getX() >= minX && robot.getX() <= maxX && robot.getY() >= minY && robot.getY() <= maxY) {
+                        result.add(robot);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns all robots whose euclidean distance to the specified position is at most the specified radius.
+     *
+     * @param x      the X coordinate of the center
+     * @param y      the Y coordinate of the center
+     * @param radius the maximum distance
+     *
+     * @return all robots within the specified radius
+     *
+     * @throws IllegalArgumentException if the radius is negative
+     */
+    @NotNull List<Robot> near(final int x, final int y, final int radius) {
+        if (radius < 0) {
+            throw new IllegalArgumentException("Radius must not be negative: " + radius);
+        }
+        // the bounds may exceed the range of int for large radii, so they are clamped to the world first
+        final long minX = Math.max(0, (long) x - radius);
+        final long minY = Math.max(0, (long) y - radius);
+        final long maxX = Math.min(width - 1, (long) x + radius);
+        final long maxY = Math.min(height - 1, (long) y + radius);
+        if (minX > maxX || minY > maxY) {
+            return new ArrayList<>();
+        }
+        final List<Robot> result = inRect((int) minX, (int) minY, (int) maxX, (int) maxY);
+        final long radiusSquared = (long) radius * radius;
+        result.removeIf(robot -> distanceSquared(robot, x, y) > radiusSquared);
+        return result;
+    }
+
+    /**
+     * Returns the robot nearest to the specified robot, excluding the robot itself. Ties are broken in favor of the
+     * robot found first.
+     *
+     * <p>The buckets are searched in rings around the bucket of the robot. Once the searched area would cover more
+     * buckets than are occupied, the occupied buckets are checked directly instead, so the search never costs more
+     * than a pass over the occupied buckets, no matter how large and empty the world is.
+     *
+     * @param robot the robot to search the nearest neighbor of
+     *
+     * @return the nearest other robot or {@code null} if there is no other robot
+     */
+    synchronized @Nullable Robot nearest(final @NotNull Robot robot) {
+        final int x = robot.getX();
+        final int y = robot.getY();
+        final int bx = x >> BUCKET_SHIFT;
+        final int by = y >> BUCKET_SHIFT;
+        final int maxRing = Math.max(
+            Math.max(bx, ((width - 1) >> BUCKET_SHIFT) - bx),
+            Math.max(by, ((height - 1) >> BUCKET_SHIFT) - by)
+        );
+        Robot best = null;
+        long bestDistance = Long.MAX_VALUE;
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // robots in this ring are at least this far away along one axis
+            final long minDistance = ring == 0 ? 0 : (long) (ring - 1) * BUCKET_SIZE + 1;
+            if (minDistance * minDistance > bestDistance) {
+                break;
+            }
+            if ((long) (2 * ring + 1) * (2 * ring + 1) > buckets.size()) {
+                return nearestInOccupiedBuckets(robot);
+            }
+            for (int dy = -ring; dy <= ring; dy++) {
+                final boolean edgeRow = dy == -ring || dy == ring;
+                // the inner rows of a ring only consist of their first and last bucket
+                for (int dx = -ring; dx <= ring; dx += edgeRow ? 1 : 2 * ring) {
+                    final List<Robot> bucket = buckets.get(key(bx + dx, by + dy));
+                    if (bucket != null) {
+                        for (final Robot other : bucket) {
+                            final long distance = distanceSquared(other, x, y);
+                            if (other != robot && distance < bestDistance) {
+                                best = other;
+                                bestDistance = distance;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the robot nearest to the specified robot, excluding the robot itself, by checking the robots of all
+     * occupied buckets.
+     *
+     * @param robot the robot to search the nearest neighbor of
+     *
+     * @return the nearest other robot or {@code null} if there is no other robot
+     */
+    private @Nullable Robot nearestInOccupiedBuckets(final @NotNull Robot robot) {
+        Robot best = null;
+        long bestDistance = Long.MAX_VALUE;
+        for (final List<Robot> bucket : buckets.values()) {
+            for (final Robot other : bucket) {
+                final long distance = distanceSquared(other, robot.getX(), robot.getY());
+                if (other != robot && distance < bestDistance) {
+                    best = other;
+                    bestDistance = distance;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the squared euclidean distance between the specified robot and position.
+     *
+     * @param robot the robot
+     * @param x     the X coordinate of the position
+     * @param y     the Y coordinate of the position
+     *
+     * @return the squared euclidean distance between the robot and the position
+     */
+    private static long distanceSquared(final @NotNull Robot robot, final int x, final int y) {
+        final long dx = (long) robot.getX() - x;
+        final long dy = (long) robot.getY() - y;
+        return dx * dx + dy * dy;
+    }
+}
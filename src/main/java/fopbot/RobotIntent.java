@@ -0,0 +1,39 @@
+package fopbot;
+
+/**
+ * The action a robot intends to perform during a tick of a {@link TickSimulation}.
+ *
+ * @see RobotController
+ */
+public enum RobotIntent {
+
+    /**
+     * The robot does nothing.
+     */
+    NONE,
+
+    /**
+     * The robot moves one field forward. The intent is rejected if the field in front of the robot is not free.
+     */
+    MOVE,
+
+    /**
+     * The robot turns 90 degrees to the left.
+     */
+    TURN_LEFT,
+
+    /**
+     * The robot picks up a coin from its field. The intent is rejected if no coin is left on the field.
+     */
+    PICK_COIN,
+
+    /**
+     * The robot puts a coin on its field. The intent is rejected if the robot has no coins.
+     */
+    PUT_COIN,
+
+    /**
+     * The robot turns itself off.
+     */
+    TURN_OFF
+}
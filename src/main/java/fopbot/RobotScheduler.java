@@ -0,0 +1,48 @@
+package fopbot;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Random;
+
+/**
+ * Decides which robot program of a {@link RobotExecutor} may perform its next action.
+ *
+ * <p>A scheduler must be deterministic, i.e., given the same sequence of calls it has to return the same sequence of
+ * results, so that executions are reproducible.
+ */
+@FunctionalInterface
+public interface RobotScheduler {
+
+    /**
+     * Selects the program that may perform its next action.
+     *
+     * @param previous the index of the previously selected program or {@code -1} if there is none, e.g. at the start
+     *                 of the execution or if the previously selected program was the first one and has terminated
+     * @param count    the number of programs that have not terminated yet, always at least {@code 1}
+     *
+     * @return the index of the selected program, between {@code 0} (inclusive) and {@code count} (exclusive)
+     */
+    int next(int previous, int count);
+
+    /**
+     * Returns a scheduler that lets the programs perform their actions in turns, in the order they were submitted.
+     *
+     * @return a round-robin scheduler
+     */
+    static @NotNull RobotScheduler roundRobin() {
+        return (previous, count) -> (previous + 1) % count;
+    }
+
+    /**
+     * Returns a scheduler that selects the next program uniformly at random, using a random number generator with the
+     * specified seed. Each returned scheduler has its own generator, so it should only be used for a single execution.
+     *
+     * @param seed the seed of the random number generator
+     *
+     * @return a seeded random scheduler
+     */
+    static @NotNull RobotScheduler seededRandom(final long seed) {
+        final Random random = new Random(seed);
+        return (previous, count) -> random.nextInt(count);
+    }
+}
@@ -0,0 +1,1021 @@
+package fopbot;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+
+/**
+ * A swarm of lightweight robots living in a {@link KarelWorld}.
+ *
+ * <p>In contrast to regular {@link Robot}s, the state of the swarm's robots (position, direction, coins and whether
+ * they are turned on) is stored in parallel primitive arrays, and each robot is only identified by its index. This
+ * allows a single world to host millions of robots. Swarm robots are neither placed on the {@link Field}s of the world
+ * nor traced individually, but their actions count towards the {@linkplain KarelWorld#getActionLimit() action limit}
+ * of the world.
+ *
+ * <p>Every operation on the swarm, whether it affects a single robot or a whole range of robots, triggers exactly one
+ * update of the world. If a {@link Robot} object is needed, e.g. to pass a swarm robot to existing code, a lightweight
+ * handle can be obtained via {@link #robot(int)}.
+ *
+ * @see KarelWorld#getSwarm()
+ */
+public class RobotSwarm {
+
+    /**
+     * The initial capacity of a swarm.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * The directions indexed by their ordinal.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * All crash reasons, indexed by their ordinal.
+     */
+    private static final CrashReason[] CRASH_REASONS = CrashReason.values();
+
+    /**
+     * The x offsets of the directions indexed by their ordinal.
+     */
+    private static final int[] DX = {Direction.UP.dx, Direction.RIGHT.dx, Direction.DOWN.dx, Direction.LEFT.dx};
+
+    /**
+     * The y offsets of the directions indexed by their ordinal.
+     */
+    private static final int[] DY = {Direction.UP.dy, Direction.RIGHT.dy, Direction.DOWN.dy, Direction.LEFT.dy};
+
+    /**
+     * The world the swarm lives in.
+     */
+    private final @NotNull KarelWorld world;
+
+    /**
+     * The X coordinates of the robots.
+     */
+    int[] xs;
+
+    /**
+     * The Y coordinates of the robots.
+     */
+    int[] ys;
+
+    /**
+     * The ordinals of the directions the robots are facing.
+     */
+    byte[] directions;
+
+    /**
+     * The numbers of coins carried by the robots.
+     */
+    int[] coins;
+
+    /**
+     * Whether the robots are turned off.
+     */
+    boolean[] off;
+
+    /**
+     * The ordinals of the reasons why the robots crashed plus one, or {@code 0} for robots that have not crashed.
+     */
+    byte[] crashReasons;
+
+    /**
+     * The number of robots in this swarm.
+     */
+    int size;
+
+    /**
+     * The number of robots in this swarm that are turned on.
+     */
+    private int turnedOnCount;
+
+    /**
+     * The number of actions performed by the robots of this swarm.
+     */
+    long actionCount;
+
+    /**
+     * The visual representation shared by all robots of this swarm.
+     */
+    private @NotNull RobotFamily robotFamily = RobotFamily.TRIANGLE_BLUE;
+
+    /**
+     * Constructs an empty swarm living in the specified world.
+     *
+     * @param world the world the swarm lives in
+     */
+    RobotSwarm(final @NotNull KarelWorld world) {
+        this.world = world;
+        xs = new int[DEFAULT_CAPACITY];
+        ys = new int[DEFAULT_CAPACITY];
+        directions = new byte[DEFAULT_CAPACITY];
+        coins = new int[DEFAULT_CAPACITY];
+        off = new boolean[DEFAULT_CAPACITY];
+        crashReasons = new byte[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Returns the world this swarm lives in.
+     *
+     * @return the world this swarm lives in
+     */
+    public @NotNull KarelWorld getWorld() {
+        return world;
+    }
+
+    /**
+     * Ensures that this swarm can hold at least the specified number of robots without growing its arrays.
+     *
+     * @param capacity the minimum capacity
+     */
+    public void ensureCapacity(final int capacity) {
+        if (capacity <= xs.length) {
+            return;
+        }
+        final int newCapacity = Math.max(capacity, xs.length + (xs.length >> 1));
+        xs = Arrays.copyOf(xs, newCapacity);
+        ys = Arrays.copyOf(ys, newCapacity);
+        directions = Arrays.copyOf(directions, newCapacity);
+        coins = Arrays.copyOf(coins, newCapacity);
+        off = Arrays.copyOf(off, newCapacity);
+        crashReasons = Arrays.copyOf(crashReasons, newCapacity);
+    }
+
+    /**
+     * Adds a new turned on robot to this swarm.
+     *
+     * @param x             the initial x-coordinate
+     * @param y             the initial y-coordinate
+     * @param direction     the initial facing direction
+     * @param numberOfCoins the initial number of coins
+     *
+     * @return the index of the new robot
+     *
+     * @throws IllegalArgumentException if the position is outside the world or the number of coins is negative
+     */
+    public int add(final int x, final int y, final @NotNull Direction direction, final int numberOfCoins) {
+        world.checkXCoordinate(x);
+        world.checkYCoordinate(y);
+        world.checkNumberOfCoins(numberOfCoins);
+        ensureCapacity(size + 1);
+        xs[size] = x;
+        ys[size] = y;
+        directions[size] = (byte) direction.ordinal();
+        coins[size] = numberOfCoins;
+        off[size] = false;
+        crashReasons[size] = 0;
+        turnedOnCount++;
+        return size++;
+    }
+
+    /**
+     * Returns the number of robots in this swarm.
+     *
+     * @return the number of robots in this swarm
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of robots in this swarm that are turned on.
+     *
+     * @return the number of robots in this swarm that are turned on
+     */
+    public int getTurnedOnCount() {
+        return turnedOnCount;
+    }
+
+    /**
+     * Returns the number of actions performed by the robots of this swarm.
+     *
+     * @return the number of actions performed by the robots of this swarm
+     */
+    public long getActionCount() {
+        return actionCount;
+    }
+
+    /**
+     * Removes all robots from this swarm.
+     */
+    public void clear() {
+        size = 0;
+        turnedOnCount = 0;
+    }
+
+    /**
+     * Returns the visual representation shared by all robots of this swarm.
+     *
+     * @return the visual representation of the robots
+     */
+    public @NotNull RobotFamily getRobotFamily() {
+        return robotFamily;
+    }
+
+    /**
+     * Sets the visual representation shared by all robots of this swarm.
+     *
+     * @param robotFamily the new visual representation of the robots
+     */
+    public void setRobotFamily(final @NotNull RobotFamily robotFamily) {
+        this.robotFamily = robotFamily;
+        world.triggerUpdate();
+    }
+
+    /**
+     * Returns a lightweight {@link Robot} handle for the robot with the specified index. The handle does not hold any
+     * state itself, so all handles for the same index are equal and reflect the current state of the robot.
+     *
+     * @param index the index of the robot
+     *
+     * @return a handle for the robot with the specified index
+     *
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public @NotNull Robot robot(final int index) {
+        return new SwarmRobot(this, checkIndex(index));
+    }
+
+    /**
+     * Validates that the specified index refers to a robot of this swarm.
+     *
+     * @param index the index to validate
+     *
+     * @return the index
+     *
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    int checkIndex(final int index) {
+        return Objects.checkIndex(index, size);
+    }
+
+    /**
+     * Validates that the specified range refers to robots of this swarm.
+     *
+     * @param from the first index of the range (inclusive)
+     * @param to   the last index of the range (exclusive)
+     *
+     * @throws IndexOutOfBoundsException if the range is out of bounds
+     */
+    private void checkRange(final int from, final int to) {
+        Objects.checkFromToIndex(from, to, size);
+    }
+
+    /**
+     * Records the specified number of actions and checks the cancellation and the action limit of the world.
+     *
+     * @param actions the number of actions performed
+     */
+    void countActions(final int actions) {
+        world.checkCancelled();
+        actionCount += actions;
+        world.checkActionLimit();
+    }
+
+    /**
+     * Finishes an operation of this swarm by updating the world once.
+     */
+    void finishOperation() {
+        world.triggerUpdate();
+        world.sleep();
+    }
+
+    /**
+     * Returns the x-coordinate of the robot with the specified index.
+     *
+     * @param index the index of the robot
+     *
+     * @return the x-coordinate of the robot
+     */
+    public int getX(final int index) {
+        return xs[checkIndex(index)];
+    }
+
+    /**
+     * Returns the y-coordinate of the robot with the specified index.
+     *
+     * @param index the index of the robot
+     *
+     * @return the y-coordinate of the robot
+     */
+    public int getY(final int index) {
+        return ys[checkIndex(index)];
+    }
+
+    /**
+     * Returns the direction the robot with the specified index is facing.
+     *
+     * @param index the index of the robot
+     *
+     * @return the direction of the robot
+     */
+    public @NotNull Direction getDirection(final int index) {
+        return DIRECTIONS[directions[checkIndex(index)]];
+    }
+
+    /**
+     * Returns the number of coins the robot with the specified index is carrying.
+     *
+     * @param index the index of the robot
+     *
+     * @return the number of coins of the robot
+     */
+    public int getNumberOfCoins(final int index) {
+        return coins[checkIndex(index)];
+    }
+
+    /**
+     * Checks whether the robot with the specified index is turned off.
+     *
+     * @param index the index of the robot
+     *
+     * @return {@code true} if the robot is turned off
+     */
+    public boolean isTurnedOff(final int index) {
+        return off[checkIndex(index)];
+    }
+
+    /**
+     * Returns the reason why the robot with the specified index crashed.
+     *
+     * @param index the index of the robot
+     *
+     * @return the reason why the robot crashed or {@code null} if it has not crashed
+     */
+    public @Nullable CrashReason getCrashReason(final int index) {
+        final int reason = crashReasons[checkIndex(index)];
+        return reason == 0 ? null : CRASH_REASONS[reason - 1];
+    }
+
+    /**
+     * Checks whether the field in front of the robot with the specified index is free.
+     *
+     * @param index the index of the robot
+     *
+     * @return {@code true} if the robot can move forward
+     */
+    public boolean isFrontClear(final int index) {
+        checkIndex(index);
+        return world.isFrontClear(xs[index], ys[index], DIRECTIONS[directions[index]]);
+    }
+
+    /**
+     * Checks whether the robot with the specified index is on a field that contains at least one coin.
+     *
+     * @param index the index of the robot
+     *
+     * @return {@code true} if there is a coin at the robot's position
+     */
+    public boolean isOnACoin(final int index) {
+        checkIndex(index);
+        return world.isCoinInField(xs[index], ys[index]);
+    }
+
+    /**
+     * Turns the robot with the specified index off.
+     *
+     * @param index the index of the robot
+     */
+    public void turnOff(final int index) {
+        countActions(1);
+        turnOffUnchecked(checkIndex(index));
+        finishOperation();
+    }
+
+    /**
+     * Moves the robot with the specified index one field forward.
+     *
+     * @param index the index of the robot
+     *
+     * @throws RobotCrashedException if the robot cannot move forward, in which case it is turned off
+     */
+    public void move(final int index) {
+        checkIndex(index);
+        countActions(1);
+        final boolean crashed = !moveUnchecked(index);
+        finishOperation();
+        if (crashed) {
+            crash(index);
+        }
+    }
+
+    /**
+     * Turns the robot with the specified index 90 degrees to the left.
+     *
+     * @param index the index of the robot
+     */
+    public void turnLeft(final int index) {
+        checkIndex(index);
+        countActions(1);
+        turnLeftUnchecked(index);
+        finishOperation();
+    }
+
+    /**
+     * Moves the robot with the specified index the specified number of fields forward and updates the world once.
+     *
+     * @param index the index of the robot
+     * @param steps the number of fields to move
+     *
+     * @throws IllegalArgumentException if the number of steps is negative
+     * @throws RobotCrashedException    if the robot cannot move forward, in which case it is turned off on the last
+     *                                  field it could reach
+     */
+    public void move(final int index, final int steps) {
+        checkIndex(index);
+        if (steps < 0) {
+            throw new IllegalArgumentException("Number of steps must not be negative: " + steps);
+        }
+        boolean crashed = false;
+        for (int i = 0; i < steps && !crashed; i++) {
+            countActions(1);
+            crashed = !moveUnchecked(index);
+        }
+        finishOperation();
+        if (crashed) {
+            crash(index);
+        }
+    }
+
+    /**
+     * Turns the robot with the specified index the specified number of times 90 degrees to the left and updates the
+     * world once.
+     *
+     * @param index the index of the robot
+     * @param turns the number of left turns
+     *
+     * @throws IllegalArgumentException if the number of turns is negative
+     */
+    public void turnLeft(final int index, final int turns) {
+        checkIndex(index);
+        if (turns < 0) {
+            throw new IllegalArgumentException("Number of turns must not be negative: " + turns);
+        }
+        countActions(turns);
+        for (int i = 0; i < (turns & 3); i++) {
+            turnLeftUnchecked(index);
+        }
+        finishOperation();
+    }
+
+    /**
+     * Moves the robot with the specified index forward until the field in front of it is not clear anymore and
+     * updates the world once. Each step is counted as an action.
+     *
+     * @param index the index of the robot
+     *
+     * @return the number of fields the robot moved
+     */
+    public int moveUntilBlocked(final int index) {
+        checkIndex(index);
+        if (off[index]) {
+            return 0;
+        }
+        final Direction direction = DIRECTIONS[directions[index]];
+        int x = xs[index];
+        int y = ys[index];
+        int steps = 0;
+        while (world.isFrontClear(x, y, direction)) {
+            x += direction.dx;
+            y += direction.dy;
+            steps++;
+        }
+        countActions(steps);
+        xs[index] = x;
+        ys[index] = y;
+        finishOperation();
+        return steps;
+    }
+
+    /**
+     * Lets the robot with the specified index pick up all coins from its field and updates the world once. Each coin
+     * is counted as an action, and picking up no coin is counted as a single action.
+     *
+     * @param index the index of the robot
+     *
+     * @return the number of coins picked up
+     */
+    public int pickAllCoins(final int index) {
+        checkIndex(index);
+        final int available = off[index] ? 0 : world.getCoinCount(xs[index], ys[index]);
+        countActions(Math.max(available, 1));
+        if (available == 0) {
+            return 0;
+        }
+        final int picked = world.removeCoins(xs[index], ys[index], available);
+        coins[index] += picked;
+        finishOperation();
+        return picked;
+    }
+
+    /**
+     * Lets the robot with the specified index put the specified number of coins on its field and updates the world
+     * once. Each coin is counted as an action.
+     *
+     * @param index         the index of the robot
+     * @param numberOfCoins the number of coins to put
+     *
+     * @throws IllegalArgumentException if the number of coins is negative
+     * @throws RobotCrashedException    if the robot has fewer coins than it should put, in which case it puts all of
+     *                                  its coins and is turned off
+     */
+    public void putCoins(final int index, final int numberOfCoins) {
+        checkIndex(index);
+        if (numberOfCoins < 0) {
+            throw new IllegalArgumentException("Number of coins must not be negative: " + numberOfCoins);
+        }
+        if (off[index]) {
+            return;
+        }
+        final int put = Math.min(numberOfCoins, coins[index]);
+        countActions(put);
+        if (put > 0) {
+            coins[index] -= put;
+            world.addCoins(xs[index], ys[index], put);
+        }
+        final boolean crashed = put < numberOfCoins;
+        if (crashed) {
+            countActions(1);
+            recordCrash(index, CrashReason.NO_COINS);
+            turnOffUnchecked(index);
+        }
+        finishOperation();
+        if (crashed) {
+            crash(index);
+        }
+    }
+
+    /**
+     * Lets the robot with the specified index pick up a coin from its field.
+     *
+     * @param index the index of the robot
+     *
+     * @throws RobotCrashedException if there is no coin on the field, in which case the robot is turned off
+     */
+    public void pickCoin(final int index) {
+        checkIndex(index);
+        countActions(1);
+        final boolean crashed = !pickCoinUnchecked(index);
+        finishOperation();
+        if (crashed) {
+            crash(index);
+        }
+    }
+
+    /**
+     * Lets the robot with the specified index put a coin on its field.
+     *
+     * @param index the index of the robot
+     *
+     * @throws RobotCrashedException if the robot has no coins, in which case it is turned off
+     */
+    public void putCoin(final int index) {
+        checkIndex(index);
+        countActions(1);
+        final boolean crashed = !putCoinUnchecked(index);
+        finishOperation();
+        if (crashed) {
+            crash(index);
+        }
+    }
+
+    /**
+     * Moves all robots in the specified range one field forward. Robots that cannot move crash and are turned off,
+     * but do not interrupt the operation.
+     *
+     * @param from the first index of the range (inclusive)
+     * @param to   the last index of the range (exclusive)
+     *
+     * @return the number of robots that crashed
+     */
+    public int moveAll(final int from, final int to) {
+        checkRange(from, to);
+        countActions(to - from);
+        int crashed = 0;
+        for (int i = from; i < to; i++) {
+            if (!moveUnchecked(i)) {
+                crashed++;
+            }
+        }
+        finishOperation();
+        return crashed;
+    }
+
+    /**
+     * Performs one simulation step for all robots in the specified range: every turned on robot moves one field
+     * forward and then picks up a coin if there is one on its new field. Robots that cannot move crash and are turned
+     * off, but do not interrupt the operation.
+     *
+     * <p>The movement of all robots is evaluated in a single pass over the coordinate arrays against the cached
+     * {@linkplain KarelWorld#getPassabilityMask() passability mask} of the world, without any per-robot method calls.
+     * Whether a robot ends up on a field with coins is looked up in the {@linkplain KarelWorld#getCoinMask() coin mask}
+     * of the world, which is kept up to date as coins are added and removed, so only robots that actually pick up a
+     * coin touch the fields of the world and the cost of a step is proportional to the number of robots. For worlds
+     * too large for these masks, the step falls back to querying the world for every robot.
+     *
+     * <p>Each movement and each picked up coin counts as one action. All actions of the step are counted before any
+     * robot is changed, so hitting the action limit leaves the robots and the world untouched.
+     *
+     * @param from the first index of the range (inclusive)
+     * @param to   the last index of the range (exclusive)
+     *
+     * @return the number of robots that crashed
+     */
+    public int stepAll(final int from, final int to) {
+        checkRange(from, to);
+        final byte[] mask = world.getPassabilityMask();
+        final AtomicLongArray coinMask = mask != null ? world.getCoinMask() : null;
+        countActions(to - from + countPicks(from, to, mask, coinMask));
+        final int crashed = mask != null ? stepMasked(from, to, mask) : stepScalar(from, to);
+        if (coinMask != null) {
+            pickCoinsMasked(from, to, coinMask);
+        } else {
+            pickCoinsScalar(from, to);
+        }
+        finishOperation();
+        return crashed;
+    }
+
+    /**
+     * Returns the number of coins the robots in the specified range will pick up in a {@linkplain #stepAll(int, int)
+     * step}, without changing anything. Robots whose next field has coins are collected first, so only the fields of
+     * those robots are looked at. If more robots than coins end up on the same field, only as many robots as there are
+     * coins pick one up.
+     *
+     * @param from     the first index of the range (inclusive)
+     * @param to       the last index of the range (exclusive)
+     * @param mask     the passability mask of the world or {@code null} to query the world instead
+     * @param coinMask the coin mask of the world or {@code null} to query the world instead
+     *
+     * @return the number of coins that will be picked up
+     */
+    private int countPicks(
+        final int from,
+        final int to,
+        final byte @Nullable [] mask,
+        final @Nullable AtomicLongArray coinMask
+    ) {
+        if (world.getStats().coinsOnBoard() == 0) {
+            return 0;
+        }
+        final int width = world.getWidth();
+        long[] targets = new long[16];
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (off[i]) {
+                continue;
+            }
+            final int direction = directions[i];
+            final boolean passable = mask != null
+                ? (mask[ys[i] * width + xs[i]] >> direction & 1) != 0
+                : world.isFrontClear(xs[i], ys[i], DIRECTIONS[direction]);
+            if (!passable) {
+                continue;
+            }
+            final int x = xs[i] + DX[direction];
+            final int y = ys[i] + DY[direction];
+            final long cell = (long) y * width + x;
+            final boolean coin = coinMask != null
+                ? (coinMask.get((int) (cell / Long.SIZE)) >>> cell & 1) != 0
+                : world.isCoinInField(x, y);
+            if (coin) {
+                if (count == targets.length) {
+                    targets = Arrays.copyOf(targets, count * 2);
+                }
+                targets[count++] = cell;
+            }
+        }
+        Arrays.sort(targets, 0, count);
+        int picks = 0;
+        for (int start = 0, end; start < count; start = end) {
+            end = start + 1;
+            while (end < count && targets[end] == targets[start]) {
+                end++;
+            }
+            final int x = (int) (targets[start] % width);
+            final int y = (int) (targets[start] / width);
+            picks += end - start == 1 ? 1 : Math.min(end - start, world.getCoinCount(x, y));
+        }
+        return picks;
+    }
+
+    /**
+     * Lets all turned on robots in the specified range that stand on a field with coins pick up one coin. Only robots
+     * whose field is set in the specified coin mask touch the fields of the world.
+     *
+     * @param from     the first index of the range (inclusive)
+     * @param to       the last index of the range (exclusive)
+     * @param coinMask the coin mask of the world
+     *
+     * @return the number of coins picked up
+     */
+    private int pickCoinsMasked(final int from, final int to, final @NotNull AtomicLongArray coinMask) {
+        if (world.getStats().coinsOnBoard() == 0) {
+            return 0;
+        }
+        final int width = world.getWidth();
+        int picked = 0;
+        for (int i = from; i < to; i++) {
+            final int cell = ys[i] * width + xs[i];
+            if (!off[i] && (coinMask.get(cell / Long.SIZE) >>> cell & 1) != 0 && world.removeCoin(xs[i], ys[i])) {
+                coins[i]++;
+                picked++;
+            }
+        }
+        return picked;
+    }
+
+    /**
+     * Lets all turned on robots in the specified range that stand on a field with coins pick up one coin by querying
+     * the world for every robot.
+     *
+     * @param from the first index of the range (inclusive)
+     * @param to   the last index of the range (exclusive)
+     *
+     * @return the number of coins picked up
+     */
+    private int pickCoinsScalar(final int from, final int to) {
+        int picked = 0;
+        for (int i = from; i < to; i++) {
+            if (!off[i] && world.removeCoin(xs[i], ys[i])) {
+                coins[i]++;
+                picked++;
+            }
+        }
+        return picked;
+    }
+
+    /**
+     * Moves all robots in the specified range one field forward using the specified passability mask.
+     *
+     * @param from the first index of the range (inclusive)
+     * @param to   the last index of the range (exclusive)
+     * @param mask the passability mask of the world
+     *
+     * @return the number of robots that crashed
+     */
+    private int stepMasked(final int from, final int to, final byte[] mask) {
+        final int width = world.getWidth();
+        final int[] xs = this.xs;
+        final int[] ys = this.ys;
+        final byte[] directions = this.directions;
+        final boolean[] off = this.off;
+        int crashed = 0;
+        for (int i = from; i < to; i++) {
+            final int direction = directions[i];
+            final boolean on = !off[i];
+            final boolean passable = (mask[ys[i] * width + xs[i]] >> direction & 1) != 0;
+            final boolean moves = on & passable;
+            xs[i] += moves ? DX[direction] : 0;
+            ys[i] += moves ? DY[direction] : 0;
+            final boolean crashes = on & !passable;
+            if (crashes) {
+                // xs and ys still hold the field the robot crashed on
+                recordCrash(i, getMoveCrashReason(i));
+            }
+            off[i] |= crashes;
+            crashed += crashes ? 1 : 0;
+        }
+        turnedOnCount -= crashed;
+        return crashed;
+    }
+
+    /**
+     * Moves all robots in the specified range one field forward by querying the world for every robot.
+     *
+     * @param from the first index of the range (inclusive)
+     * @param to   the last index of the range (exclusive)
+     *
+     * @return the number of robots that crashed
+     */
+    private int stepScalar(final int from, final int to) {
+        int crashed = 0;
+        for (int i = from; i < to; i++) {
+            if (!moveUnchecked(i)) {
+                crashed++;
+            }
+        }
+        return crashed;
+    }
+
+    /**
+     * Turns all robots in the specified range 90 degrees to the left.
+     *
+     * @param from the first index of the range (inclusive)
+     * @param to   the last index of the range (exclusive)
+     */
+    public void turnLeftAll(final int from, final int to) {
+        checkRange(from, to);
+        countActions(to - from);
+        for (int i = from; i < to; i++) {
+            turnLeftUnchecked(i);
+        }
+        finishOperation();
+    }
+
+    /**
+     * Lets all robots in the specified range pick up a coin. Robots standing on a field without coins crash and are
+     * turned off, but do not interrupt the operation.
+     *
+     * @param from the first index of the range (inclusive)
+     * @param to   the last index of the range (exclusive)
+     *
+     * @return the number of robots that crashed
+     */
+    public int pickCoinAll(final int from, final int to) {
+        checkRange(from, to);
+        countActions(to - from);
+        int crashed = 0;
+        for (int i = from; i < to; i++) {
+            if (!pickCoinUnchecked(i)) {
+                crashed++;
+            }
+        }
+        finishOperation();
+        return crashed;
+    }
+
+    /**
+     * Lets all robots in the specified range put a coin on their field. Robots without coins crash and are turned off,
+     * but do not interrupt the operation.
+     *
+     * @param from the first index of the range (inclusive)
+     * @param to   the last index of the range (exclusive)
+     *
+     * @return the number of robots that crashed
+     */
+    public int putCoinAll(final int from, final int to) {
+        checkRange(from, to);
+        countActions(to - from);
+        int crashed = 0;
+        for (int i = from; i < to; i++) {
+            if (!putCoinUnchecked(i)) {
+                crashed++;
+            }
+        }
+        finishOperation();
+        return crashed;
+    }
+
+    /**
+     * Turns all robots in the specified range off.
+     *
+     * @param from the first index of the range (inclusive)
+     * @param to   the last index of the range (exclusive)
+     */
+    public void turnOffAll(final int from, final int to) {
+        checkRange(from, to);
+        countActions(to - from);
+        for (int i = from; i < to; i++) {
+            turnOffUnchecked(i);
+        }
+        finishOperation();
+    }
+
+    /**
+     * Performs the specified action for the index of every robot in the specified range and updates the world once
+     * afterward. The action may call the methods of this swarm that take an index, but should not call other
+     * operations that trigger updates.
+     *
+     * @param from   the first index of the range (inclusive)
+     * @param to     the last index of the range (exclusive)
+     * @param action the action to perform for each index
+     */
+    public void forEach(final int from, final int to, final @NotNull IntConsumer action) {
+        checkRange(from, to);
+        for (int i = from; i < to; i++) {
+            action.accept(i);
+        }
+        finishOperation();
+    }
+
+    /**
+     * Turns the robot with the specified index off without counting an action or updating the world.
+     *
+     * @param index the index of the robot
+     */
+    void turnOffUnchecked(final int index) {
+        if (!off[index]) {
+            off[index] = true;
+            turnedOnCount--;
+        }
+    }
+
+    /**
+     * Moves the robot with the specified index without counting an action or updating the world.
+     *
+     * @param index the index of the robot
+     *
+     * @return {@code false} if the robot crashed
+     */
+    boolean moveUnchecked(final int index) {
+        if (off[index]) {
+            return true;
+        }
+        final Direction direction = DIRECTIONS[directions[index]];
+        if (!world.isFrontClear(xs[index], ys[index], direction)) {
+            recordCrash(index, getMoveCrashReason(index));
+            turnOffUnchecked(index);
+            return false;
+        }
+        xs[index] += direction.dx;
+        ys[index] += direction.dy;
+        return true;
+    }
+
+    /**
+     * Turns the robot with the specified index left without counting an action or updating the world.
+     *
+     * @param index the index of the robot
+     */
+    void turnLeftUnchecked(final int index) {
+        if (!off[index]) {
+            directions[index] = (byte) ((directions[index] + 3) & 3);
+        }
+    }
+
+    /**
+     * Lets the robot with the specified index pick up a coin without counting an action or updating the world.
+     *
+     * @param index the index of the robot
+     *
+     * @return {@code false} if the robot crashed
+     */
+    boolean pickCoinUnchecked(final int index) {
+        if (off[index]) {
+            return true;
+        }
+        if (!world.removeCoin(xs[index], ys[index])) {
+            recordCrash(index, CrashReason.NO_COINS);
+            turnOffUnchecked(index);
+            return false;
+        }
+        coins[index]++;
+        return true;
+    }
+
+    /**
+     * Lets the robot with the specified index put a coin without counting an action or updating the world.
+     *
+     * @param index the index of the robot
+     *
+     * @return {@code false} if the robot crashed
+     */
+    boolean putCoinUnchecked(final int index) {
+        if (off[index]) {
+            return true;
+        }
+        if (coins[index] == 0) {
+            recordCrash(index, CrashReason.NO_COINS);
+            turnOffUnchecked(index);
+            return false;
+        }
+        coins[index]--;
+        world.addCoins(xs[index], ys[index], 1);
+        return true;
+    }
+
+    /**
+     * Records the reason why the robot with the specified index crashed.
+     *
+     * @param index  the index of the robot
+     * @param reason the reason why the robot crashed
+     */
+    void recordCrash(final int index, final @NotNull CrashReason reason) {
+        crashReasons[index] = (byte) (reason.ordinal() + 1);
+    }
+
+    /**
+     * Returns the reason why the robot with the specified index crashes when moving into the field in front of it.
+     *
+     * @param index the index of the robot
+     *
+     * @return {@link CrashReason#OUT_OF_BOUNDS} if the field is outside the world and {@link CrashReason#BLOCKED}
+     *     otherwise
+     */
+    private @NotNull CrashReason getMoveCrashReason(final int index) {
+        final int x = xs[index] + DX[directions[index]];
+        final int y = ys[index] + DY[directions[index]];
+        return x < 0 || y < 0 || x >= world.getWidth() || y >= world.getHeight()
+            ? CrashReason.OUT_OF_BOUNDS
+            : CrashReason.BLOCKED;
+    }
+
+    /**
+     * Signals the crash of the robot with the specified index according to the
+     * {@linkplain KarelWorld#getCrashMode() crash mode} of the world. The crash has to be recorded before.
+     *
+     * @param index the index of the robot
+     *
+     * @throws RobotCrashedException unless the crash mode of the world is {@link CrashMode#RECORD}
+     */
+    void crash(final int index) {
+        world.signalCrash(Objects.requireNonNull(getCrashReason(index)), xs[index], ys[index]);
+    }
+}
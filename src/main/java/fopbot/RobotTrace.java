@@ -2,31 +2,245 @@ package fopbot;
 
 import fopbot.Transition.RobotAction;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 
 /**
  * Enables the analysis or tracing of the actions of robots.
  *
+ * <p>The trace is stored column-wise in growable primitive arrays: each entry consists of the step number of its first
+ * action, the state of the robot before that action packed into a {@code long}, the number of coins of the robot and
+ * the number of transitions up to and including the entry. Tracing an action therefore takes a few bytes and does not
+ * allocate any objects, and {@link Transition}s are only materialized when they are requested.
+ *
+ * <p>Consecutive identical actions whose states follow from each other, e.g. a robot moving straight ahead or turning
+ * left three times to turn right, are run-length encoded into a single entry, and the states within a run are derived
+ * from the state before the run. The cumulative transition counts of the entries form a run index, which answers
+ * queries like {@link #getTransition(int)}, {@link #getActionCount(RobotAction)} or {@link #getTurnCount()} directly
+ * from the compressed form without expanding the trace.
+ *
+ * <p>A trace created with {@link #RobotTrace(Path)} is backed by a {@linkplain TraceLog trace log} on disk: whenever
+ * {@value #SEGMENT_ENTRIES} entries have been traced, they are spilled to the log as a memory-mapped segment, so only
+ * the most recent segment is kept in memory. Spilled entries are read back lazily when the trace is iterated, so the
+ * heap used by the trace stays constant however long the program runs.
+ *
+ * <p>The {@linkplain TracePolicy policy} of a trace determines which of the traced actions are recorded as
+ * transitions: only selected types of actions, only every n-th action or only the most recent actions in a bounded
+ * ring. Actions that are not recorded are still counted by {@link #getActionCount(RobotAction)} and
+ * {@link #getTracedCount()}.
+ *
  * @see Robot
  */
 public class RobotTrace implements Iterable<Transition> {
 
     /**
-     * The transitions contain the analysis * or tracing of the actions of robots.
+     * The initial capacity of the columns.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The number of entries of a segment spilled to the trace log.
+     */
+    static final int SEGMENT_ENTRIES = 1 << 16;
+
+    /**
+     * The number of bits used for each coordinate in a packed state.
+     */
+    private static final int COORDINATE_BITS = 24;
+
+    /**
+     * The mask of a coordinate in a packed state.
+     */
+    private static final long COORDINATE_MASK = (1L << COORDINATE_BITS) - 1;
+
+    /**
+     * The offset of the y-coordinate in a packed state.
+     */
+    private static final int Y_SHIFT = COORDINATE_BITS;
+
+    /**
+     * The offset of the direction ordinal in a packed state.
+     */
+    private static final int DIRECTION_SHIFT = 2 * COORDINATE_BITS;
+
+    /**
+     * The offset of the off flag in a packed state.
+     */
+    private static final int OFF_SHIFT = DIRECTION_SHIFT + 2;
+
+    /**
+     * The offset of the action ordinal in a packed state.
+     */
+    private static final int ACTION_SHIFT = OFF_SHIFT + 1;
+
+    /**
+     * All robot actions, indexed by their ordinal.
+     */
+    private static final RobotAction[] ACTIONS = RobotAction.values();
+
+    /**
+     * All directions, indexed by their ordinal.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * A copy of the traced robot providing the properties that do not change between transitions, e.g. its ID, or
+     * {@code null} if nothing has been traced yet.
+     */
+    private @Nullable Robot template;
+
+    /**
+     * The log holding the entries spilled from memory or {@code null} if this trace is kept in memory only.
+     */
+    private @Nullable TraceLog log;
+
+    /**
+     * Whether full segments of this trace are spilled to its log. Copies of a trace share the spilled entries of the
+     * original, but keep their own entries in memory.
+     */
+    private boolean spilling;
+
+    /**
+     * The path this trace has been created with if it spills its entries, from which the paths of the logs used after
+     * replacing the transitions are derived.
+     */
+    private @Nullable Path logPath;
+
+    /**
+     * The number of entries spilled to the log.
+     */
+    private long spilledEntries;
+
+    /**
+     * The number of transitions of the entries spilled to the log.
+     */
+    private int spilledSize;
+
+    /**
+     * The number of transitions up to and including each segment spilled to the log.
+     */
+    private int[] segmentEnds = new int[0];
+
+    /**
+     * The number of entries kept in memory, which follow the spilled entries.
+     */
+    private int entryCount;
+
+    /**
+     * The number of transitions in this trace, counting each action of a run separately.
+     */
+    private int size;
+
+    /**
+     * The number of times the transitions of this trace have been replaced or the entries kept in memory have been
+     * moved.
+     */
+    private int modificationCount;
+
+    /**
+     * The number of times the transitions of this trace have been replaced.
+     */
+    private int generation;
+
+    /**
+     * The number of evicted transitions that have been removed from memory since the transitions of this trace were
+     * last replaced. Together with {@link #head}, this is the number of transitions before the first one kept.
+     */
+    private long removedCount;
+
+    /**
+     * The policy determining which traced actions are recorded.
+     */
+    private @NotNull TracePolicy policy = TracePolicy.ALL;
+
+    /**
+     * The number of traced actions selected by the policy, which determines the actions recorded by an interval.
+     */
+    private long selectedCount;
+
+    /**
+     * The number of transitions at the beginning of the entries kept in memory that have been evicted by a bounded
+     * policy but not removed yet.
+     */
+    private int head;
+
+    /**
+     * The number of traced actions, including those that have not been recorded.
+     */
+    private long tracedCount;
+
+    /**
+     * The reason why the traced robot crashed or {@code null} if it has not crashed.
+     */
+    private @Nullable CrashReason crashReason;
+
+    /**
+     * The step number of the action the traced robot crashed at or {@code -1} if it has not crashed.
      */
-    private @NotNull List<Transition> transitions = new ArrayList<>();
+    private int crashStep = -1;
+
+    /**
+     * The number of traced actions of each action, including those that have not been recorded, indexed by the
+     * ordinal of the action.
+     */
+    private long[] actionCounts = new long[ACTIONS.length];
+
+    /**
+     * The step number of the first action of each entry.
+     */
+    private int[] steps = new int[INITIAL_CAPACITY];
+
+    /**
+     * The action and the state of the robot before the first action of each entry, packed by
+     * {@link #pack(RobotAction, int, int, Direction, boolean)}.
+     */
+    private long[] states = new long[INITIAL_CAPACITY];
+
+    /**
+     * The number of coins of the robot before the first action of each entry.
+     */
+    private int[] coins = new int[INITIAL_CAPACITY];
+
+    /**
+     * The number of transitions of this trace up to and including each entry.
+     */
+    private int[] ends = new int[INITIAL_CAPACITY];
 
     /**
      * Constructs and initializes robot trace with the specified trace as previous traces of the
-     * constructed robot trace.
+     * constructed robot trace. The constructed trace records all further actions regardless of the policy of the
+     * specified trace.
      *
      * @param robotTrace the previous traces of the constructed robot trace
      */
     public RobotTrace(final @NotNull RobotTrace robotTrace) {
-        this.transitions = new ArrayList<>(robotTrace.getTransitions());
+        final int capacity = Math.max(robotTrace.entryCount + 1, INITIAL_CAPACITY);
+        this.template = robotTrace.template;
+        this.log = robotTrace.log;
+        this.spilledEntries = robotTrace.spilledEntries;
+        this.spilledSize = robotTrace.spilledSize;
+        this.segmentEnds = robotTrace.segmentEnds.clone();
+        this.entryCount = robotTrace.entryCount;
+        this.size = robotTrace.size;
+        this.head = robotTrace.head;
+        this.removedCount = robotTrace.removedCount;
+        this.tracedCount = robotTrace.tracedCount;
+        this.crashReason = robotTrace.crashReason;
+        this.crashStep = robotTrace.crashStep;
+        this.actionCounts = robotTrace.actionCounts.clone();
+        this.steps = Arrays.copyOf(robotTrace.steps, capacity);
+        this.states = Arrays.copyOf(robotTrace.states, capacity);
+        this.coins = Arrays.copyOf(robotTrace.coins, capacity);
+        this.ends = Arrays.copyOf(robotTrace.ends, capacity);
     }
 
     /**
@@ -36,26 +250,576 @@ public class RobotTrace implements Iterable<Transition> {
     }
 
     /**
-     * Returns the previous transitions of this trace.
+     * Constructs and initializes robot trace with an empty trace that spills its entries to a new trace log in the
+     * specified file. An existing file is replaced.
+     *
+     * @param path the path of the log file
+     *
+     * @throws java.io.UncheckedIOException if the file cannot be written
+     */
+    public RobotTrace(final @NotNull Path path) {
+        this.log = TraceLog.create(path);
+        this.spilling = true;
+        this.logPath = path;
+    }
+
+    /**
+     * Loads a trace from a log file that has been written by a trace created with {@link #RobotTrace(Path)}. Only the
+     * entries that have been spilled or {@linkplain #flush() flushed} are contained. The loaded trace does not know
+     * the identity of its robot, so the robots of its transitions only reflect the traced state.
+     *
+     * @param path the path of the log file
+     *
+     * @return the loaded trace
+     *
+     * @throws java.io.UncheckedIOException if the file cannot be read
+     * @throws IllegalArgumentException     if the file is not a trace log
+     */
+    public static @NotNull RobotTrace load(final @NotNull Path path) {
+        final TraceLog.Header header = TraceLog.readHeader(path);
+        final TraceLog log = TraceLog.open(path);
+        final RobotTrace trace = new RobotTrace();
+        trace.template = new Robot(true, 0, 0, Direction.UP, 0);
+        trace.log = log;
+        trace.spilledEntries = header.entryCount();
+        trace.segmentEnds = new int[(int) ((header.entryCount() + SEGMENT_ENTRIES - 1) / SEGMENT_ENTRIES)];
+        // rebuild the run index and the action counts, which are not stored in the log
+        int end = 0;
+        for (int segment = 0; segment < trace.segmentEnds.length; segment++) {
+            final long first = (long) segment * SEGMENT_ENTRIES;
+            final int length = (int) Math.min(SEGMENT_ENTRIES, header.entryCount() - first);
+            final ByteBuffer buffer = log.map(first, length);
+            for (int i = 0; i < length; i++) {
+                final int position = i * TraceLog.RECORD_BYTES;
+                final int count = buffer.getInt(position + 16);
+                trace.actionCounts[(int) (buffer.getLong(position + 4) >>> ACTION_SHIFT)] += count;
+                end += count;
+            }
+            trace.segmentEnds[segment] = end;
+        }
+        trace.spilledSize = end;
+        trace.size = end;
+        trace.tracedCount = end;
+        return trace;
+    }
+
+    /**
+     * Writes the entries kept in memory to the log of this trace without removing them from memory, so that the log
+     * file contains the whole trace. Does nothing if this trace does not spill its entries to a log.
+     *
+     * @throws java.io.UncheckedIOException if the file cannot be written
+     */
+    public void flush() {
+        if (spilling && log != null) {
+            compact();
+            log.write(spilledEntries, steps, states, coins, ends, spilledSize, entryCount, size);
+        }
+    }
+
+    /**
+     * Returns the path of the log file this trace spills its entries to. A new log file is started whenever the
+     * transitions of this trace are {@linkplain #setTransitions(List) replaced}.
+     *
+     * @return the path of the log file or {@code null} if this trace is kept in memory only
+     */
+    public @Nullable Path getLogPath() {
+        return log == null ? null : log.getPath();
+    }
+
+    /**
+     * Returns the previous transitions of this trace. The transitions are materialized from the stored columns, so
+     * the returned list is a copy and changes to it do not affect this trace.
      *
      * @return the previous transitions of this trace
      */
     public @NotNull List<Transition> getTransitions() {
+        final List<Transition> transitions = new ArrayList<>(size());
+        for (final Transition transition : this) {
+            transitions.add(transition);
+        }
         return transitions;
     }
 
     /**
-     * Sets previous transitions of the actions of robots to the specified transitions.
+     * Sets previous transitions of the actions of robots to the specified transitions. The transitions are recorded
+     * regardless of the types of actions and the interval of the policy of this trace, but a bounded policy only keeps
+     * the most recent ones. A trace that spills its entries starts a new log file, since copies of the trace may still
+     * read the current one, see {@link #getLogPath()}.
      *
      * @param transitions the new transitions for this trace
      */
     public void setTransitions(final @NotNull List<Transition> transitions) {
-        this.transitions = transitions;
+        modificationCount++;
+        generation++;
+        removedCount = 0;
+        template = null;
+        if (log != null) {
+            // copies still map the spilled segments of the current log, so it must not be truncated
+            log = spilling ? TraceLog.create(getReplacementLogPath()) : null;
+        }
+        spilledEntries = 0;
+        spilledSize = 0;
+        segmentEnds = new int[0];
+        entryCount = 0;
+        size = 0;
+        head = 0;
+        selectedCount = 0;
+        tracedCount = 0;
+        Arrays.fill(actionCounts, 0);
+        for (final Transition transition : transitions) {
+            count(transition.action, 1);
+            append(transition.robot, transition.action, transition.step, 1);
+        }
+        evict();
+    }
+
+    /**
+     * Returns the path of the log started when the transitions of this trace are replaced, which is derived from the
+     * path this trace has been created with and the number of replacements, e.g. {@code robot-0-1.trace} for
+     * {@code robot-0.trace}.
+     *
+     * @return the path of the new log
+     */
+    private @NotNull Path getReplacementLogPath() {
+        final Path path = Objects.requireNonNull(logPath);
+        final String name = path.getFileName().toString();
+        final int extension = name.lastIndexOf('.') > 0 ? name.lastIndexOf('.') : name.length();
+        return path.resolveSibling(name.substring(0, extension) + "-" + generation + name.substring(extension));
+    }
+
+    /**
+     * Returns the number of transitions in this trace, counting each action of a run separately.
+     *
+     * @return the number of transitions in this trace
+     */
+    public int size() {
+        return size - head;
+    }
+
+    /**
+     * Returns the number of traced actions, including those that have not been recorded due to the policy of this
+     * trace. A run of actions counts as its number of actions.
+     *
+     * @return the number of traced actions
+     */
+    public long getTracedCount() {
+        return tracedCount;
+    }
+
+    /**
+     * Returns the number of traced actions that are not contained in this trace, either because the policy did not
+     * record them or because they have been evicted by a bounded policy.
+     *
+     * @return the number of dropped actions
+     */
+    public long getDroppedCount() {
+        return tracedCount - size();
+    }
+
+    /**
+     * Returns the reason why the traced robot crashed. The crash is recorded regardless of the policy of this trace.
+     *
+     * @return the reason why the robot crashed or {@code null} if it has not crashed
+     */
+    public @Nullable CrashReason getCrashReason() {
+        return crashReason;
+    }
+
+    /**
+     * Returns the step number of the action the traced robot crashed at.
+     *
+     * @return the step number of the crash or {@code -1} if the robot has not crashed
+     */
+    public int getCrashStep() {
+        return crashStep;
+    }
+
+    /**
+     * Records that the traced robot crashed.
+     *
+     * @param reason the reason why the robot crashed
+     * @param step   the step number of the action the robot crashed at
+     */
+    void recordCrash(final @NotNull CrashReason reason, final int step) {
+        crashReason = reason;
+        crashStep = step;
+    }
+
+    /**
+     * Returns the policy determining which traced actions are recorded.
+     *
+     * @return the policy of this trace
+     */
+    public @NotNull TracePolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Sets the policy determining which actions traced from now on are recorded. A bounded policy immediately evicts
+     * the oldest transitions exceeding its capacity. Bounded traces keep their entries in memory and do not spill them
+     * to their log. Replacing a bounded policy by an unbounded one removes the evicted transitions from memory.
+     *
+     * @param policy the new policy of this trace
+     *
+     * @throws IllegalStateException if the policy is bounded and entries of this trace have already been spilled
+     */
+    public void setPolicy(final @NotNull TracePolicy policy) {
+        if (policy.isBounded() && spilledEntries > 0) {
+            throw new IllegalStateException("Cannot bound a trace whose entries have been spilled");
+        }
+        final boolean wasBounded = this.policy.isBounded();
+        this.policy = policy;
+        if (wasBounded && !policy.isBounded()) {
+            // the evicted transitions would otherwise be spilled with the remaining ones
+            compact();
+        } else {
+            evict();
+        }
+    }
+
+    /**
+     * Returns the number of run-length encoded entries this trace is stored in.
+     *
+     * @return the number of entries of this trace
+     */
+    public long getRunCount() {
+        return spilledEntries + entryCount;
+    }
+
+    /**
+     * Returns the number of traced actions of the specified type, including those that have not been recorded due to
+     * the policy of this trace.
+     *
+     * @param action the action to count
+     *
+     * @return the number of traced actions of the type
+     */
+    public long getActionCount(final @NotNull RobotAction action) {
+        return actionCounts[action.ordinal()];
+    }
+
+    /**
+     * Returns the number of left turns in this trace. A right turn performed by {@link Robot#turnRight()} counts as
+     * three left turns.
+     *
+     * @return the number of left turns
+     */
+    public long getTurnCount() {
+        return getActionCount(RobotAction.TURN_LEFT);
+    }
+
+    /**
+     * Returns the transition with the specified index, i.e. the state of the robot before its {@code index}-th
+     * traced action. Only the requested transition is materialized; its run is located through the run index in
+     * logarithmic time, or by scanning a single segment if it has been spilled to the log.
+     *
+     * @param index the index of the transition
+     *
+     * @return the transition with the specified index
+     *
+     * @throws IndexOutOfBoundsException if the index is negative or not smaller than {@link #size()}
+     */
+    public @NotNull Transition getTransition(final int index) {
+        Objects.checkIndex(index, size());
+        return new Cursor(head + index, head + index + 1).next();
+    }
+
+    /**
+     * An iterator over a range of transitions that materializes the transitions while walking along the entries.
+     */
+    private final class Cursor implements Iterator<Transition> {
+
+        /**
+         * The index of the next transition.
+         */
+        private int index;
+
+        /**
+         * The index after the last transition of the range.
+         */
+        private int end;
+
+        /**
+         * The index of the entry of the next transition, counting spilled entries first.
+         */
+        private long entry;
+
+        /**
+         * The offset of the next transition within its entry.
+         */
+        private int offset;
+
+        /**
+         * The mapped segment of spilled entries containing the current entry or {@code null} if none is mapped.
+         */
+        private @Nullable ByteBuffer segment;
+
+        /**
+         * The index of the first entry of the mapped segment.
+         */
+        private long segmentStart;
+
+        /**
+         * The modification count of the trace when this iterator was last positioned.
+         */
+        private int expectedModificationCount = modificationCount;
+
+        /**
+         * The generation of the transitions of the trace when this iterator was created.
+         */
+        private final int expectedGeneration = generation;
+
+        /**
+         * The number of transitions removed from the trace by compactions when this iterator was last positioned.
+         */
+        private long expectedRemovedCount = removedCount;
+
+        /**
+         * Constructs an iterator over the specified range of transitions, including the evicted ones.
+         *
+         * @param from the index of the first transition
+         * @param to   the index after the last transition
+         */
+        private Cursor(final int from, final int to) {
+            this.index = from;
+            this.end = to;
+            seek(from);
+        }
+
+        /**
+         * Positions this iterator at the specified transition.
+         *
+         * @param from the index of the transition
+         */
+        private void seek(final int from) {
+            segment = null;
+            offset = 0;
+            if (from == 0 || from >= size) {
+                entry = from == 0 ? 0 : spilledEntries + entryCount;
+            } else if (from >= spilledSize) {
+                final int hot = findEntry(ends, entryCount, from);
+                entry = spilledEntries + hot;
+                offset = from - (hot == 0 ? spilledSize : ends[hot - 1]);
+            } else {
+                final int segmentIndex = findEntry(segmentEnds, segmentEnds.length, from);
+                segmentStart = (long) segmentIndex * SEGMENT_ENTRIES;
+                segment = mapSpilled(segmentStart);
+                int start = segmentIndex == 0 ? 0 : segmentEnds[segmentIndex - 1];
+                entry = segmentStart;
+                for (int position = 16; from >= start + segment.getInt(position); position += TraceLog.RECORD_BYTES) {
+                    start += segment.getInt(position);
+                    entry++;
+                }
+                offset = from - start;
+            }
+        }
+
+        /**
+         * Repositions this iterator after the entries kept in memory have been moved by a compaction, which removed
+         * the evicted transitions before them.
+         *
+         * @throws ConcurrentModificationException if the transitions of the trace have been replaced or the next
+         *                                         transition has been removed
+         */
+        private void resync() {
+            if (generation != expectedGeneration) {
+                throw new ConcurrentModificationException("The transitions of the trace have been replaced");
+            }
+            final int shift = (int) (removedCount - expectedRemovedCount);
+            if (index - shift < 0) {
+                throw new ConcurrentModificationException("The next transition has been evicted from the trace");
+            }
+            index -= shift;
+            end -= shift;
+            expectedRemovedCount = removedCount;
+            expectedModificationCount = modificationCount;
+            seek(index);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < end;
+        }
+
+        @Override
+        public Transition next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (modificationCount != expectedModificationCount) {
+                resync();
+            }
+            if (index < head) {
+                throw new ConcurrentModificationException("The next transition has been evicted from the trace");
+            }
+            final Transition transition;
+            final int count;
+            if (entry < spilledEntries) {
+                if (segment == null || entry >= segmentStart + SEGMENT_ENTRIES) {
+                    segmentStart = entry - entry % SEGMENT_ENTRIES;
+                    segment = mapSpilled(segmentStart);
+                }
+                final int position = (int) (entry - segmentStart) * TraceLog.RECORD_BYTES;
+                transition = materialize(
+                    segment.getInt(position),
+                    segment.getLong(position + 4),
+                    segment.getInt(position + 12),
+                    offset
+                );
+                count = segment.getInt(position + 16);
+            } else {
+                final int hot = (int) (entry - spilledEntries);
+                transition = materialize(steps[hot], states[hot], coins[hot], offset);
+                count = getCount(hot);
+            }
+            if (++offset == count) {
+                entry++;
+                offset = 0;
+            }
+            index++;
+            return transition;
+        }
+    }
+
+    /**
+     * Returns the index of the first of the specified cumulative counts that is greater than the specified index.
+     *
+     * @param ends   the cumulative counts in ascending order
+     * @param length the number of cumulative counts to search
+     * @param index  the index to search for
+     *
+     * @return the index of the first cumulative count greater than the index
+     */
+    private static int findEntry(final int[] ends, final int length, final int index) {
+        int low = 0;
+        int high = length - 1;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (ends[middle] > index) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Maps the spilled segment starting with the specified entry.
+     *
+     * @param first the index of the first entry of the segment
+     *
+     * @return the buffer containing the records of the segment
+     */
+    private @NotNull ByteBuffer mapSpilled(final long first) {
+        return Objects.requireNonNull(log).map(first, (int) Math.min(SEGMENT_ENTRIES, spilledEntries - first));
     }
 
     @Override
     public @NotNull Iterator<Transition> iterator() {
-        return transitions.iterator();
+        return new Cursor(head, size);
+    }
+
+    /**
+     * Returns an iterator over the transitions of this trace in the specified index range.
+     *
+     * @param from the index of the first transition
+     * @param to   the index after the last transition
+     *
+     * @return an iterator over the transitions in the range
+     *
+     * @throws IndexOutOfBoundsException if the range is out of bounds
+     */
+    @NotNull Iterator<Transition> iterator(final int from, final int to) {
+        Objects.checkFromToIndex(from, to, size());
+        return new Cursor(head + from, head + to);
+    }
+
+    /**
+     * Returns a read-only view of the transitions that have been traced so far. Creating a view does not copy the
+     * trace, and later actions do not change the length of the view.
+     *
+     * @return a view of this trace
+     */
+    public @NotNull TraceView view() {
+        return new TraceView(this, size(), null);
+    }
+
+    /**
+     * Copies the actions and states of the transitions of this trace into the specified arrays without materializing
+     * the transitions. The action and the state of each transition except for its number of coins are packed into a
+     * single {@code long}, so two transitions have the same action and state if and only if both their packed states
+     * and their numbers of coins are equal.
+     *
+     * @param states the array receiving the packed actions and states, with a length of at least {@link #size()}
+     * @param coins  the array receiving the numbers of coins, with a length of at least {@link #size()}
+     */
+    void copyStates(final long[] states, final int[] coins) {
+        int index = 0;
+        for (long first = 0; first < spilledEntries; first += SEGMENT_ENTRIES) {
+            final ByteBuffer segment = mapSpilled(first);
+            for (int position = 0; position < segment.limit(); position += TraceLog.RECORD_BYTES) {
+                index = copyStates(
+                    states,
+                    coins,
+                    index,
+                    segment.getLong(position + 4),
+                    segment.getInt(position + 12),
+                    segment.getInt(position + 16)
+                );
+            }
+        }
+        for (int entry = 0; entry < entryCount; entry++) {
+            index = copyStates(states, coins, index, this.states[entry], this.coins[entry], getCount(entry));
+        }
+    }
+
+    /**
+     * Copies the actions and states of the transitions of a single entry into the specified arrays, skipping evicted
+     * transitions.
+     *
+     * @param states        the array receiving the packed actions and states
+     * @param coins         the array receiving the numbers of coins
+     * @param index         the index of the first transition of the entry, including evicted transitions
+     * @param state         the packed state of the entry
+     * @param numberOfCoins the number of coins of the robot before the first action of the entry
+     * @param count         the number of actions of the entry
+     *
+     * @return the index of the first transition of the next entry
+     */
+    private int copyStates(
+        final long[] states,
+        final int[] coins,
+        final int index,
+        final long state,
+        final int numberOfCoins,
+        final int count
+    ) {
+        for (int offset = Math.max(head - index, 0); offset < count; offset++) {
+            states[index + offset - head] = advance(state, offset);
+            coins[index + offset - head] = advanceCoins(state, numberOfCoins, offset);
+        }
+        return index + count;
+    }
+
+    /**
+     * Returns the number of times the transitions of this trace have been replaced, which invalidates existing views.
+     *
+     * @return the generation of the transitions of this trace
+     */
+    int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Returns the number of transitions that have been evicted by a bounded policy since the transitions of this
+     * trace were last replaced, i.e. the position of the transition with index {@code 0} among all transitions ever
+     * recorded. Views use it to find their transitions after older ones have been evicted.
+     *
+     * @return the number of evicted transitions
+     */
+    long getEvictedCount() {
+        return removedCount + head;
     }
 
     /**
@@ -65,15 +829,339 @@ public class RobotTrace implements Iterable<Transition> {
      * @param robotAction the action of the robot
      */
     public void trace(final @NotNull Robot r, final @NotNull RobotAction robotAction) {
-        transitions.add(new Transition(robotAction, r));
-        World.getGlobalWorld().checkActionLimit();
+        record(r, robotAction, Transition.nextSteps(r, 1), 1);
+    }
+
+    /**
+     * Traces a run of the specified number of consecutive identical actions of the specified robot as a single
+     * entry. The states of the robot after the first action of the run are derived from the action when the run is
+     * expanded, so only {@link RobotAction#MOVE}, {@link RobotAction#TURN_LEFT}, {@link RobotAction#PICK_COIN} and
+     * {@link RobotAction#PUT_COIN} may be repeated.
+     *
+     * @param r           the robot to trace in its state before the first action of the run
+     * @param robotAction the action of the robot
+     * @param count       the number of actions in the run
+     *
+     * @throws IllegalArgumentException if the count is negative or the action cannot be repeated
+     */
+    public void trace(final @NotNull Robot r, final @NotNull RobotAction robotAction, final int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative: " + count);
+        }
+        if (count > 1 && !isRepeatable(robotAction)) {
+            throw new IllegalArgumentException("Action cannot be repeated: " + robotAction);
+        }
+        if (count > 0) {
+            record(r, robotAction, Transition.nextSteps(r, count), count);
+        }
+    }
+
+    /**
+     * Returns {@code true} if the states of a robot during a run of the specified action can be derived from its
+     * state before the run.
+     *
+     * @param action the action to check
+     *
+     * @return {@code true} if the specified action can be repeated in a run
+     */
+    private static boolean isRepeatable(final @NotNull RobotAction action) {
+        return switch (action) {
+            case MOVE, TURN_LEFT, PICK_COIN, PUT_COIN -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Counts the specified actions and records those selected by the policy of this trace.
+     *
+     * @param r      the robot in its state before the first action
+     * @param action the action
+     * @param step   the step number of the first action
+     * @param count  the number of actions
+     */
+    private void record(final @NotNull Robot r, final @NotNull RobotAction action, final int step, final int count) {
+        count(action, count);
+        if (!policy.isSelected(action)) {
+            return;
+        }
+        final long first = selectedCount;
+        selectedCount += count;
+        final int interval = policy.interval();
+        if (interval == 1) {
+            append(r, action, step, count);
+        } else {
+            // record the actions whose position among the selected actions is a multiple of the interval
+            long offset = Math.floorMod(-first, interval);
+            if (offset < count) {
+                final long state = pack(action, r.getX(), r.getY(), r.getDirection(), r.isTurnedOff());
+                final int numberOfCoins = r.getNumberOfCoins();
+                initTemplate(r);
+                for (; offset < count; offset += interval) {
+                    final int index = (int) offset;
+                    append(advance(state, index), advanceCoins(state, numberOfCoins, index), step + index, 1);
+                }
+            }
+        }
+        evict();
+    }
+
+    /**
+     * Counts the specified actions as traced.
+     *
+     * @param action the action
+     * @param count  the number of actions
+     */
+    private void count(final @NotNull RobotAction action, final int count) {
+        actionCounts[action.ordinal()] += count;
+        tracedCount += count;
+    }
+
+    /**
+     * Remembers a copy of the specified robot as the template of this trace if nothing has been recorded yet.
+     *
+     * @param r the traced robot
+     */
+    private void initTemplate(final @NotNull Robot r) {
+        if (template == null) {
+            template = new Robot(r);
+        }
+    }
+
+    /**
+     * Appends the specified actions to this trace, extending the last entry if the actions continue its run.
+     *
+     * @param r      the robot in its state before the first action
+     * @param action the action
+     * @param step   the step number of the first action
+     * @param count  the number of actions
+     */
+    private void append(final @NotNull Robot r, final @NotNull RobotAction action, final int step, final int count) {
+        initTemplate(r);
+        append(pack(action, r.getX(), r.getY(), r.getDirection(), r.isTurnedOff()), r.getNumberOfCoins(), step, count);
+    }
+
+    /**
+     * Appends the specified actions to this trace, extending the last entry if the actions continue its run.
+     *
+     * @param state         the packed action and state of the robot before the first action
+     * @param numberOfCoins the number of coins of the robot before the first action
+     * @param step          the step number of the first action
+     * @param count         the number of actions
+     */
+    private void append(final long state, final int numberOfCoins, final int step, final int count) {
+        size += count;
+        if (entryCount > 0 && isRepeatable(ACTIONS[(int) (state >>> ACTION_SHIFT)])) {
+            final int last = entryCount - 1;
+            final int lastCount = getCount(last);
+            if (steps[last] + lastCount == step
+                && advance(states[last], lastCount) == state
+                && advanceCoins(states[last], coins[last], lastCount) == numberOfCoins) {
+                ends[last] = size;
+                return;
+            }
+        }
+        if (spilling && entryCount >= SEGMENT_ENTRIES && !policy.isBounded()) {
+            spill();
+        }
+        if (entryCount == steps.length) {
+            final int capacity = steps.length * 2;
+            steps = Arrays.copyOf(steps, capacity);
+            states = Arrays.copyOf(states, capacity);
+            coins = Arrays.copyOf(coins, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+        }
+        steps[entryCount] = step;
+        states[entryCount] = state;
+        coins[entryCount] = numberOfCoins;
+        ends[entryCount] = size;
+        entryCount++;
+    }
+
+    /**
+     * Evicts the oldest transitions exceeding the capacity of a bounded policy. Evicted transitions are only skipped
+     * at first and removed in bulk once as many transitions as the capacity have been evicted, so each action is
+     * moved a constant number of times on average.
+     */
+    private void evict() {
+        if (!policy.isBounded() || size - head <= policy.capacity()) {
+            return;
+        }
+        head = size - policy.capacity();
+        if (head >= Math.max(policy.capacity(), INITIAL_CAPACITY)) {
+            compact();
+        }
+    }
+
+    /**
+     * Removes the evicted transitions from the entries kept in memory. A bounded trace never spills its entries, so
+     * the evicted transitions are always kept in memory.
+     */
+    private void compact() {
+        if (head == 0) {
+            return;
+        }
+        // the entries kept in memory move, so iterators have to reposition themselves
+        modificationCount++;
+        removedCount += head;
+        final int entry = findEntry(ends, entryCount, head);
+        final int offset = head - (entry == 0 ? 0 : ends[entry - 1]);
+        if (offset > 0) {
+            // the first remaining entry starts within a run, so it starts with the state reached by the evicted part
+            coins[entry] = advanceCoins(states[entry], coins[entry], offset);
+            states[entry] = advance(states[entry], offset);
+            steps[entry] += offset;
+        }
+        final int remaining = entryCount - entry;
+        System.arraycopy(steps, entry, steps, 0, remaining);
+        System.arraycopy(states, entry, states, 0, remaining);
+        System.arraycopy(coins, entry, coins, 0, remaining);
+        System.arraycopy(ends, entry, ends, 0, remaining);
+        for (int i = 0; i < remaining; i++) {
+            ends[i] -= head;
+        }
+        entryCount = remaining;
+        size -= head;
+        head = 0;
+    }
+
+    /**
+     * Writes the oldest entries kept in memory to the log as a new segment of at most {@value #SEGMENT_ENTRIES}
+     * entries and removes them from memory. More entries are kept in memory if a bounded policy has been replaced by
+     * an unbounded one, and they are spilled one segment per appended entry.
+     */
+    private void spill() {
+        final int length = Math.min(entryCount, SEGMENT_ENTRIES);
+        final int spilled = ends[length - 1];
+        Objects.requireNonNull(log).write(spilledEntries, steps, states, coins, ends, spilledSize, length, spilled);
+        segmentEnds = Arrays.copyOf(segmentEnds, segmentEnds.length + 1);
+        segmentEnds[segmentEnds.length - 1] = spilled;
+        final int remaining = entryCount - length;
+        // the entries keep their indices, which count the spilled entries first, so iterators stay valid
+        System.arraycopy(steps, length, steps, 0, remaining);
+        System.arraycopy(states, length, states, 0, remaining);
+        System.arraycopy(coins, length, coins, 0, remaining);
+        System.arraycopy(ends, length, ends, 0, remaining);
+        spilledEntries += length;
+        spilledSize = spilled;
+        entryCount = remaining;
+    }
+
+    /**
+     * Returns the number of actions of the specified entry kept in memory.
+     *
+     * @param entry the index of the entry
+     *
+     * @return the number of actions of the entry
+     */
+    private int getCount(final int entry) {
+        return ends[entry] - (entry == 0 ? spilledSize : ends[entry - 1]);
+    }
+
+    /**
+     * Derives the packed state of a robot after the specified number of actions of a run from its state before the
+     * run. The number of coins is derived by {@link #advanceCoins(long, int, int)}.
+     *
+     * @param state  the packed state before the run
+     * @param offset the number of actions performed
+     *
+     * @return the packed state after the actions
+     */
+    private static long advance(final long state, final int offset) {
+        final int direction = (int) (state >>> DIRECTION_SHIFT) & 3;
+        return switch (ACTIONS[(int) (state >>> ACTION_SHIFT)]) {
+            case MOVE -> {
+                final long x = (state & COORDINATE_MASK) + (long) offset * DIRECTIONS[direction].dx;
+                final long y = ((state >>> Y_SHIFT) & COORDINATE_MASK) + (long) offset * DIRECTIONS[direction].dy;
+                yield state & ~(COORDINATE_MASK | COORDINATE_MASK << Y_SHIFT)
+                    | x & COORDINATE_MASK
+                    | (y & COORDINATE_MASK) << Y_SHIFT;
+            }
+            // each left turn decreases the ordinal of the direction by one
+            case TURN_LEFT -> state & ~(3L << DIRECTION_SHIFT) | (long) ((direction - offset) & 3) << DIRECTION_SHIFT;
+            default -> state;
+        };
+    }
+
+    /**
+     * Derives the number of coins of a robot after the specified number of actions of a run from its state before
+     * the run.
+     *
+     * @param state         the packed state before the run
+     * @param numberOfCoins the number of coins before the run
+     * @param offset        the number of actions performed
+     *
+     * @return the number of coins after the actions
+     */
+    private static int advanceCoins(final long state, final int numberOfCoins, final int offset) {
+        return switch (ACTIONS[(int) (state >>> ACTION_SHIFT)]) {
+            case PICK_COIN -> numberOfCoins + offset;
+            case PUT_COIN -> numberOfCoins - offset;
+            default -> numberOfCoins;
+        };
+    }
+
+    /**
+     * Materializes the transition at the specified offset within the entry with the specified columns.
+     *
+     * @param step          the step number of the first action of the entry
+     * @param state         the packed state of the entry
+     * @param numberOfCoins the number of coins of the robot before the first action of the entry
+     * @param offset        the offset of the transition within the entry
+     *
+     * @return the materialized transition
+     */
+    private @NotNull Transition materialize(
+        final int step,
+        final long state,
+        final int numberOfCoins,
+        final int offset
+    ) {
+        final long current = advance(state, offset);
+        final Robot robot = new Robot(
+            Objects.requireNonNull(template),
+            (int) (current & COORDINATE_MASK),
+            (int) ((current >>> Y_SHIFT) & COORDINATE_MASK),
+            DIRECTIONS[(int) (current >>> DIRECTION_SHIFT) & 3],
+            advanceCoins(state, numberOfCoins, offset),
+            ((current >>> OFF_SHIFT) & 1) != 0
+        );
+        return new Transition(ACTIONS[(int) (current >>> ACTION_SHIFT)], robot, step + offset);
+    }
+
+    /**
+     * Packs the specified action and robot state into a {@code long}.
+     *
+     * @param action    the action
+     * @param x         the x-coordinate of the robot
+     * @param y         the y-coordinate of the robot
+     * @param direction the direction of the robot
+     * @param off       whether the robot is turned off
+     *
+     * @return the packed state
+     *
+     * @throws IllegalArgumentException if a coordinate is out of the supported range
+     */
+    private static long pack(
+        final @NotNull RobotAction action,
+        final int x,
+        final int y,
+        final @NotNull Direction direction,
+        final boolean off
+    ) {
+        if ((x & ~COORDINATE_MASK) != 0 || (y & ~COORDINATE_MASK) != 0) {
+            throw new IllegalArgumentException("Coordinates out of traceable range: (" + x + ", " + y + ")");
+        }
+        return x
+            | (long) y << Y_SHIFT
+            | (long) direction.ordinal() << DIRECTION_SHIFT
+            | (off ? 1L : 0L) << OFF_SHIFT
+            | (long) action.ordinal() << ACTION_SHIFT;
     }
 
     @Override
     public @NotNull String toString() {
         return "RobotTrace{"
-            + "transitions=" + transitions
+            + "transitions=" + getTransitions()
             + '}';
     }
-
 }
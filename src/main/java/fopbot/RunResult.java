@@ -0,0 +1,43 @@
+package fopbot;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The outcome of running a program on a world fixture with a {@link BatchRunner}.
+ *
+ * @param program     the name of the program
+ * @param fixture     the name of the world fixture
+ * @param stateHash   the {@linkplain KarelWorld#getStateHash() state hash} of the world after the run
+ * @param stats       the statistics of the world after the run
+ * @param traces      the traces of the robots of the world, empty if traces were not recorded
+ * @param actionCount the number of actions performed during the run
+ * @param exception   the exception thrown by the program or the fixture or {@code null} if the program terminated
+ *                    normally. If the fixture failed, the run has no world, so its state hash, statistics, traces
+ *                    and action count are empty.
+ * @param duration    the wall-clock time the run took
+ * @see BatchRunner
+ */
+public record RunResult(
+    @NotNull String program,
+    @NotNull String fixture,
+    long stateHash,
+    @NotNull WorldStats stats,
+    @NotNull List<RobotTrace> traces,
+    long actionCount,
+    @Nullable Throwable exception,
+    @NotNull Duration duration
+) {
+
+    /**
+     * Returns {@code true} if the program terminated without throwing an exception.
+     *
+     * @return {@code true} if the program terminated normally
+     */
+    public boolean isSuccess() {
+        return exception == null;
+    }
+}
@@ -0,0 +1,143 @@
+package fopbot;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * A {@link WorldStorage} that divides the world into square chunks and only allocates the chunks and fields that are
+ * actually used.
+ *
+ * <p>This storage is meant for very large worlds where most of the fields stay empty, since its memory consumption
+ * only depends on the number of touched chunks and not on the size of the world.
+ */
+public class SparseWorldStorage implements WorldStorage {
+
+    /**
+     * The binary logarithm of the edge length of a chunk.
+     */
+    private static final int CHUNK_SHIFT = 5;
+
+    /**
+     * The edge length of a chunk.
+     */
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+    /**
+     * The mask to extract the coordinate within a chunk.
+     */
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /**
+     * The world whose fields are stored.
+     */
+    private final @NotNull KarelWorld world;
+
+    /**
+     * The allocated chunks, mapped by their packed chunk coordinate.
+     */
+    private final @NotNull Map<Long, Field[]> chunks = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs and initializes a sparse storage for the specified world.
+     *
+     * @param world the world to store
+     */
+    public SparseWorldStorage(final @NotNull KarelWorld world) {
+        this.world = world;
+    }
+
+    /**
+     * Returns the key of the chunk containing the specified coordinate.
+     *
+     * @param x the X coordinate
+     * @param y the Y coordinate
+     *
+     * @return the key of the chunk containing the specified coordinate
+     */
+    private static long chunkKey(final int x, final int y) {
+        return ((long) (y >> CHUNK_SHIFT) << 32) | (x >> CHUNK_SHIFT);
+    }
+
+    /**
+     * Returns the index of the specified coordinate within its chunk.
+     *
+     * @param x the X coordinate
+     * @param y the Y coordinate
+     *
+     * @return the index of the specified coordinate within its chunk
+     */
+    private static int indexInChunk(final int x, final int y) {
+        return (y & CHUNK_MASK) << CHUNK_SHIFT | (x & CHUNK_MASK);
+    }
+
+    /**
+     * Validates that the specified coordinate is within the world.
+     *
+     * @param x the X coordinate to validate
+     * @param y the Y coordinate to validate
+     *
+     * @throws IndexOutOfBoundsException if the coordinate is outside the world borders
+     */
+    private void checkBounds(final int x, final int y) {
+        Objects.checkIndex(x, getWidth());
+        Objects.checkIndex(y, getHeight());
+    }
+
+    @Override
+    public int getWidth() {
+        return world.getWidth();
+    }
+
+    @Override
+    public int getHeight() {
+        return world.getHeight();
+    }
+
+    @Override
+    public @NotNull Field getField(final int x, final int y) {
+        checkBounds(x, y);
+        final Field[] chunk = chunks.computeIfAbsent(chunkKey(x, y), k -> new Field[CHUNK_SIZE * CHUNK_SIZE]);
+        final int index = indexInChunk(x, y);
+        if (chunk[index] == null) {
+            chunk[index] = new Field(world, x, y);
+        }
+        return chunk[index];
+    }
+
+    @Override
+    public @Nullable Field peekField(final int x, final int y) {
+        checkBounds(x, y);
+        final Field[] chunk = chunks.get(chunkKey(x, y));
+        return chunk == null ? null : chunk[indexInChunk(x, y)];
+    }
+
+    @Override
+    public void clear() {
+        for (final Field field : this) {
+            field.getEntities().clear();
+        }
+    }
+
+    /**
+     * Returns the number of allocated chunks.
+     *
+     * @return the number of allocated chunks
+     */
+    public int getChunkCount() {
+        return chunks.size();
+    }
+
+    @Override
+    public @NotNull Iterator<Field> iterator() {
+        return chunks.values().stream()
+            .flatMap(Stream::of)
+            .filter(Objects::nonNull)
+            .iterator();
+    }
+}
@@ -0,0 +1,30 @@
+package fopbot;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Serial;
+
+/**
+ * A {@link RobotCrashedException} that does not capture a stack trace, which makes it cheap to construct.
+ *
+ * @see CrashMode#STACKLESS
+ */
+public class StacklessRobotCrashedException extends RobotCrashedException {
+
+    /**
+     * The version of the serialized form of this exception.
+     */
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs an exception for a robot that crashed on the specified field.
+     *
+     * @param reason the reason why the robot crashed
+     * @param x      the X coordinate of the field the robot crashed on
+     * @param y      the Y coordinate of the field the robot crashed on
+     */
+    public StacklessRobotCrashedException(final @NotNull CrashReason reason, final int x, final int y) {
+        super(reason, x, y, false);
+    }
+}
@@ -0,0 +1,275 @@
+package fopbot;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A lightweight {@link Robot} handle for a robot of a {@link RobotSwarm}.
+ *
+ * <p>The handle does not hold any state of the robot itself but reads and writes the arrays of its swarm, so it can
+ * be created on demand and discarded right after use.
+ *
+ * @see RobotSwarm#robot(int)
+ */
+class SwarmRobot extends Robot {
+
+    /**
+     * The swarm the robot belongs to.
+     */
+    private final @NotNull RobotSwarm swarm;
+
+    /**
+     * The index of the robot in its swarm.
+     */
+    private final int index;
+
+    /**
+     * Constructs a handle for the robot with the specified index in the specified swarm.
+     *
+     * @param swarm the swarm the robot belongs to
+     * @param index the index of the robot in its swarm
+     */
+    SwarmRobot(final @NotNull RobotSwarm swarm, final int index) {
+        super(swarm.getWorld());
+        this.swarm = swarm;
+        this.index = index;
+    }
+
+    /**
+     * Returns the index of the robot in its swarm.
+     *
+     * @return the index of the robot in its swarm
+     */
+    int getIndex() {
+        return index;
+    }
+
+    @Override
+    public int getX() {
+        return swarm.xs[index];
+    }
+
+    @Override
+    public int getY() {
+        return swarm.ys[index];
+    }
+
+    @Override
+    public void setX(final int x) {
+        setField(x, getY());
+    }
+
+    @Override
+    public void setY(final int y) {
+        setField(getX(), y);
+    }
+
+    @Override
+    public void setField(final int x, final int y) {
+        swarm.getWorld().checkXCoordinate(x);
+        swarm.getWorld().checkYCoordinate(y);
+        swarm.countActions(1);
+        if (!isTurnedOff()) {
+            swarm.xs[index] = x;
+            swarm.ys[index] = y;
+        }
+        swarm.finishOperation();
+    }
+
+    @Override
+    public void move() {
+        swarm.move(index);
+    }
+
+    @Override
+    public void turnLeft() {
+        swarm.turnLeft(index);
+    }
+
+    @Override
+    public void move(final int steps) {
+        swarm.move(index, steps);
+    }
+
+    @Override
+    public void turnRight() {
+        swarm.turnLeft(index, 3);
+    }
+
+    @Override
+    public void turnAround() {
+        swarm.turnLeft(index, 2);
+    }
+
+    @Override
+    public int moveUntilBlocked() {
+        return swarm.moveUntilBlocked(index);
+    }
+
+    @Override
+    public int pickAllCoins() {
+        return swarm.pickAllCoins(index);
+    }
+
+    @Override
+    public void putCoins(final int numberOfCoins) {
+        swarm.putCoins(index, numberOfCoins);
+    }
+
+    @Override
+    public void pickCoin() {
+        swarm.pickCoin(index);
+    }
+
+    @Override
+    public void putCoin() {
+        swarm.putCoin(index);
+    }
+
+    @Override
+    public void turnOff() {
+        swarm.turnOff(index);
+    }
+
+    @Override
+    protected void crash(final @NotNull CrashReason reason) {
+        swarm.recordCrash(index, reason);
+        swarm.turnOffUnchecked(index);
+        swarm.crash(index);
+    }
+
+    @Override
+    public @Nullable CrashReason getCrashReason() {
+        return swarm.getCrashReason(index);
+    }
+
+    @Override
+    public boolean isFrontClear() {
+        return swarm.isFrontClear(index);
+    }
+
+    @Override
+    public boolean isOnACoin() {
+        return swarm.isOnACoin(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>For swarm robots, this method scans all robots of the swarm and thus takes time linear in its size.
+     */
+    @Override
+    public boolean isOnAnotherRobot() {
+        final int x = getX();
+        final int y = getY();
+        if (swarm.getWorld().isAnotherRobotInField(x, y, this)) {
+            return true;
+        }
+        for (int i = 0; i < swarm.size; i++) {
+            if (i != index && swarm.xs[i] == x && swarm.ys[i] == y) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int getNumberOfCoins() {
+        return swarm.coins[index];
+    }
+
+    @Override
+    public boolean hasAnyCoins() {
+        checkCancelled();
+        return getNumberOfCoins() > 0;
+    }
+
+    @Override
+    public void setNumberOfCoins(final int coins) {
+        swarm.getWorld().checkNumberOfCoins(coins);
+        swarm.countActions(1);
+        swarm.coins[index] = coins;
+    }
+
+    @Override
+    public boolean isTurnedOff() {
+        return swarm.off[index];
+    }
+
+    @Override
+    public boolean isTurnedOn() {
+        return !isTurnedOff();
+    }
+
+    @Override
+    public @NotNull Direction getDirection() {
+        return swarm.getDirection(index);
+    }
+
+    @Override
+    public boolean isFacingUp() {
+        checkCancelled();
+        return getDirection() == Direction.UP;
+    }
+
+    @Override
+    public boolean isFacingDown() {
+        checkCancelled();
+        return getDirection() == Direction.DOWN;
+    }
+
+    @Override
+    public boolean isFacingLeft() {
+        checkCancelled();
+        return getDirection() == Direction.LEFT;
+    }
+
+    @Override
+    public boolean isFacingRight() {
+        checkCancelled();
+        return getDirection() == Direction.RIGHT;
+    }
+
+    @Override
+    public String getId() {
+        return "swarm-" + index;
+    }
+
+    @Override
+    public @NotNull RobotFamily getRobotFamily() {
+        return swarm.getRobotFamily();
+    }
+
+    /**
+     * Sets the robot family of the swarm of the robot, since all robots of a swarm share the same visual
+     * representation.
+     *
+     * @param robotFamily the new visual family of the robots of the swarm
+     *
+     * @see RobotSwarm#setRobotFamily(RobotFamily)
+     */
+    @Override
+    public void setRobotFamily(final @NotNull RobotFamily robotFamily) {
+        swarm.setRobotFamily(robotFamily);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return o instanceof final SwarmRobot other && other.swarm == swarm && other.index == index;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(swarm) + index;
+    }
+
+    @Override
+    public String toString() {
+        return "Robot{"
+            + "id='" + getId() + '\''
+            + ", at=[" + getX() + '/' + getY()
+            + "], numberOfCoins=" + getNumberOfCoins()
+            + ", direction=" + getDirection()
+            + '}';
+    }
+}
@@ -0,0 +1,21 @@
+package fopbot;
+
+/**
+ * The outcome of a single tick of a {@link TickSimulation}.
+ *
+ * @param tick          the number of the tick, starting at {@code 1}
+ * @param appliedCount  the number of intents that have been applied
+ * @param rejectedCount the number of intents that have been rejected, e.g. because another robot picked the last coin
+ * @param idleCount     the number of robots that did nothing, including turned off robots
+ */
+public record TickResult(long tick, int appliedCount, int rejectedCount, int idleCount) {
+
+    /**
+     * Returns {@code true} if no robot intended to do anything in this tick.
+     *
+     * @return {@code true} if all robots were idle
+     */
+    public boolean isIdle() {
+        return appliedCount == 0 && rejectedCount == 0;
+    }
+}
@@ -0,0 +1,256 @@
+package fopbot;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * A synchronous simulation of the robots of a {@link KarelWorld} driven by a world clock.
+ *
+ * <p>Each tick consists of two phases. First, the {@link RobotController} of every turned on robot decides an
+ * {@link RobotIntent} against a read-only {@link TickView} of the state at the beginning of the tick. Since the world
+ * is not mutated during this phase, the controllers run in parallel by default, each with the world as its
+ * {@linkplain World#runWith(KarelWorld, Runnable) global world}. Then, all intents are applied in the order the
+ * robots were added to the simulation, within a single update of the world. An intent that can no longer be applied
+ * at its turn, e.g. picking a coin that an earlier robot has already picked, is rejected and leaves the robot
+ * unchanged instead of crashing it.
+ *
+ * <p>The applied intents are performed as regular robot actions, so they are traced and count towards the action
+ * limit of the world.
+ */
+public class TickSimulation {
+
+    /**
+     * The value of {@link #decidingTick} while no tick is being decided.
+     */
+    private static final long NOT_DECIDING = -1;
+
+    /**
+     * The world the robots act in.
+     */
+    private final @NotNull KarelWorld world;
+
+    /**
+     * The simulated robots in the order they were added.
+     */
+    private final @NotNull List<Robot> robots = new ArrayList<>();
+
+    /**
+     * The controllers of the simulated robots, in the same order as {@link #robots}.
+     */
+    private final @NotNull List<RobotController> controllers = new ArrayList<>();
+
+    /**
+     * The number of ticks performed so far.
+     */
+    private long tick;
+
+    /**
+     * The number of the tick whose intents are currently being decided or {@link #NOT_DECIDING}.
+     */
+    private volatile long decidingTick = NOT_DECIDING;
+
+    /**
+     * Whether the controllers are called in parallel.
+     */
+    private boolean parallel = true;
+
+    /**
+     * Constructs a simulation for the specified world.
+     *
+     * @param world the world the robots act in
+     */
+    public TickSimulation(final @NotNull KarelWorld world) {
+        this.world = world;
+    }
+
+    /**
+     * Returns the world the robots act in.
+     *
+     * @return the world the robots act in
+     */
+    public @NotNull KarelWorld getWorld() {
+        return world;
+    }
+
+    /**
+     * Adds the specified robot with the specified controller to this simulation.
+     *
+     * @param robot      the robot to simulate
+     * @param controller the controller deciding the actions of the robot
+     *
+     * @throws IllegalArgumentException if the robot does not live in the world of this simulation
+     */
+    public void add(final @NotNull Robot robot, final @NotNull RobotController controller) {
+        if (robot.getWorld() != world) {
+            throw new IllegalArgumentException("Robot does not live in the world of this simulation");
+        }
+        robots.add(robot);
+        controllers.add(controller);
+    }
+
+    /**
+     * Returns the number of ticks performed so far.
+     *
+     * @return the number of ticks performed so far
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Returns the number of the tick whose intents are currently being decided.
+     *
+     * @return the number of the tick being decided or {@code -1} if no tick is being decided
+     */
+    long getDecidingTick() {
+        return decidingTick;
+    }
+
+    /**
+     * Returns true if the controllers are called in parallel.
+     *
+     * @return true if the controllers are called in parallel
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Sets whether the controllers are called in parallel. Controllers that are not thread-safe, e.g. because they
+     * share a random number generator, should be called sequentially to keep the simulation reproducible.
+     *
+     * @param parallel true if the controllers should be called in parallel
+     */
+    public void setParallel(final boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * Performs a single tick.
+     *
+     * @return the outcome of the tick
+     *
+     * @throws RuntimeException     if a controller throws an exception, in which case no intent of the tick is
+     *                              applied
+     * @throws NullPointerException if a controller returns {@code null}, in which case no intent of the tick is
+     *                              applied
+     */
+    public @NotNull TickResult tick() {
+        final long current = tick + 1;
+        final RobotIntent[] intents = decide(current);
+        tick = current;
+        int applied = 0;
+        int rejected = 0;
+        world.beginUpdateBatch();
+        try {
+            for (int i = 0; i < intents.length; i++) {
+                if (intents[i] == RobotIntent.NONE) {
+                    continue;
+                }
+                if (apply(robots.get(i), intents[i])) {
+                    applied++;
+                } else {
+                    rejected++;
+                }
+            }
+        } finally {
+            world.endUpdateBatch();
+        }
+        world.sleep();
+        return new TickResult(current, applied, rejected, intents.length - applied - rejected);
+    }
+
+    /**
+     * Performs ticks until all robots are idle or the specified number of ticks has been performed.
+     *
+     * @param maxTicks the maximum number of ticks to perform
+     *
+     * @return the number of ticks performed, including the final idle tick
+     */
+    public long run(final long maxTicks) {
+        long performed = 0;
+        while (performed < maxTicks) {
+            performed++;
+            if (tick().isIdle()) {
+                break;
+            }
+        }
+        return performed;
+    }
+
+    /**
+     * Lets the controllers decide the intents of their robots for the specified tick.
+     *
+     * @param current the number of the tick to decide
+     *
+     * @return the intents of the robots, in the same order as {@link #robots}
+     */
+    private RobotIntent @NotNull [] decide(final long current) {
+        final int count = robots.size();
+        final RobotIntent[] intents = new RobotIntent[count];
+        final TickView[] views = new TickView[count];
+        for (int i = 0; i < count; i++) {
+            final Robot robot = robots.get(i);
+            if (robot.isTurnedOn()) {
+                views[i] = new TickView(this, current, robot);
+            } else {
+                intents[i] = RobotIntent.NONE;
+            }
+        }
+        decidingTick = current;
+        try {
+            final IntStream indices = IntStream.range(0, count).filter(i -> views[i] != null);
+            // pooled threads do not inherit the global world, so each controller is given the world of this simulation
+            (parallel ? indices.parallel() : indices).forEach(
+                i -> intents[i] = Objects.requireNonNull(
+                    World.callWith(world, () -> controllers.get(i).decide(views[i])),
+                    () -> "The controller of robot " + i + " returned no intent"
+                )
+            );
+        } finally {
+            decidingTick = NOT_DECIDING;
+        }
+        return intents;
+    }
+
+    /**
+     * Applies the specified intent to the specified robot, unless it can no longer be applied.
+     *
+     * @param robot  the robot to apply the intent to
+     * @param intent the intent to apply
+     *
+     * @return {@code true} if the intent has been applied, {@code false} if it has been rejected
+     */
+    private static boolean apply(final @NotNull Robot robot, final @NotNull RobotIntent intent) {
+        switch (intent) {
+            case MOVE -> {
+                if (!robot.isFrontClear()) {
+                    return false;
+                }
+                robot.move();
+            }
+            case TURN_LEFT -> robot.turnLeft();
+            case PICK_COIN -> {
+                if (!robot.isOnACoin()) {
+                    return false;
+                }
+                robot.pickCoin();
+            }
+            case PUT_COIN -> {
+                if (!robot.hasAnyCoins()) {
+                    return false;
+                }
+                robot.putCoin();
+            }
+            case TURN_OFF -> robot.turnOff();
+            case NONE -> {
+                return false;
+            }
+        }
+        return true;
+    }
+}
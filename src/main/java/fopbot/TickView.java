@@ -0,0 +1,201 @@
+package fopbot;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A read-only view of a robot and its world at the beginning of a tick of a {@link TickSimulation}.
+ *
+ * <p>The state of the robot is captured when the view is created. The world is not mutated while the controllers
+ * decide, so its sensors can be queried concurrently. A view is only valid while the controllers of its tick decide;
+ * afterwards, every query throws an {@link IllegalStateException}.
+ */
+public final class TickView {
+
+    /**
+     * The simulation the view belongs to.
+     */
+    private final @NotNull TickSimulation simulation;
+
+    /**
+     * The world of the simulation.
+     */
+    private final @NotNull KarelWorld world;
+
+    /**
+     * The number of the tick the view belongs to.
+     */
+    private final long tick;
+
+    /**
+     * The X coordinate of the robot.
+     */
+    private final int x;
+
+    /**
+     * The Y coordinate of the robot.
+     */
+    private final int y;
+
+    /**
+     * The direction the robot is facing.
+     */
+    private final @NotNull Direction direction;
+
+    /**
+     * The number of coins carried by the robot.
+     */
+    private final int numberOfCoins;
+
+    /**
+     * Constructs a view of the specified robot for the specified tick.
+     *
+     * @param simulation the simulation the view belongs to
+     * @param tick       the number of the tick the view belongs to
+     * @param robot      the robot whose state is captured
+     */
+    TickView(final @NotNull TickSimulation simulation, final long tick, final @NotNull Robot robot) {
+        this.simulation = simulation;
+        this.world = simulation.getWorld();
+        this.tick = tick;
+        this.x = robot.getX();
+        this.y = robot.getY();
+        this.direction = robot.getDirection();
+        this.numberOfCoins = robot.getNumberOfCoins();
+    }
+
+    /**
+     * Checks that the tick of this view is still being decided.
+     *
+     * @throws IllegalStateException if the tick of this view is over
+     */
+    private void checkValid() {
+        if (simulation.getDecidingTick() != tick) {
+            throw new IllegalStateException("View of tick " + tick + " is no longer valid");
+        }
+    }
+
+    /**
+     * Returns the number of the tick this view belongs to.
+     *
+     * @return the number of the tick, starting at {@code 1}
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Returns the X coordinate of the robot.
+     *
+     * @return the X coordinate of the robot
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * Returns the Y coordinate of the robot.
+     *
+     * @return the Y coordinate of the robot
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * Returns the direction the robot is facing.
+     *
+     * @return the direction the robot is facing
+     */
+    public @NotNull Direction getDirection() {
+        return direction;
+    }
+
+    /**
+     * Returns the number of coins carried by the robot.
+     *
+     * @return the number of coins carried by the robot
+     */
+    public int getNumberOfCoins() {
+        return numberOfCoins;
+    }
+
+    /**
+     * Returns {@code true} if the robot carries at least one coin.
+     *
+     * @return {@code true} if the robot carries at least one coin
+     */
+    public boolean hasAnyCoins() {
+        return numberOfCoins > 0;
+    }
+
+    /**
+     * Returns {@code true} if the field in front of the robot is free.
+     *
+     * @return {@code true} if the robot could move forward
+     *
+     * @throws IllegalStateException if the tick of this view is over
+     */
+    public boolean isFrontClear() {
+        checkValid();
+        return world.isFrontClear(x, y, direction);
+    }
+
+    /**
+     * Returns {@code true} if there is a coin on the field of the robot.
+     *
+     * @return {@code true} if there is a coin on the field of the robot
+     *
+     * @throws IllegalStateException if the tick of this view is over
+     */
+    public boolean isOnACoin() {
+        return isCoinInField(x, y);
+    }
+
+    /**
+     * Returns {@code true} if there is a coin on the field at the specified coordinate.
+     *
+     * @param x the X coordinate of the field
+     * @param y the Y coordinate of the field
+     *
+     * @return {@code true} if there is a coin on the field
+     *
+     * @throws IllegalStateException if the tick of this view is over
+     */
+    public boolean isCoinInField(final int x, final int y) {
+        checkValid();
+        return world.isCoinInField(x, y);
+    }
+
+    /**
+     * Returns {@code true} if there is a block on the field at the specified coordinate.
+     *
+     * @param x the X coordinate of the field
+     * @param y the Y coordinate of the field
+     *
+     * @return {@code true} if there is a block on the field
+     *
+     * @throws IllegalStateException if the tick of this view is over
+     */
+    public boolean isBlockInField(final int x, final int y) {
+        checkValid();
+        return world.isBlockInField(x, y);
+    }
+
+    /**
+     * Returns the width of the world.
+     *
+     * @return the width of the world
+     */
+    public int getWorldWidth() {
+        return world.getWidth();
+    }
+
+    /**
+     * Returns the height of the world.
+     *
+     * @return the height of the world
+     */
+    public int getWorldHeight() {
+        return world.getHeight();
+    }
+}
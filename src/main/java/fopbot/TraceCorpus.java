@@ -0,0 +1,878 @@
+package fopbot;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * A columnar on-disk collection of {@link TraceSummary trace summaries}, e.g. of all runs of all submissions of a
+ * semester, which can be analyzed without running the submissions again.
+ *
+ * <p>A corpus is a directory of part files, each holding up to {@value #ROWS_PER_PART} summaries column by column.
+ * The header of a part stores the minimum and maximum of each numeric column and the dictionary of each string
+ * column, so a {@link Query} skips parts that cannot contain matching summaries without reading their columns, and
+ * only evaluates the columns of its predicates for the remaining rows before materializing the matching ones. Parts
+ * are scanned in parallel.
+ *
+ * <pre>{@code
+ * try (TraceCorpus.Writer writer = TraceCorpus.writer(directory)) {
+ *     runner.run(result -> writer.addAll(TraceSummary.of("H07", result)));
+ * }
+ * final Map<Long, Long> moves = TraceCorpus.open(directory).query()
+ *     .whereEquals(TraceCorpus.Column.EXERCISE, "H07")
+ *     .stream()
+ *     .collect(Collectors.groupingBy(TraceSummary::moveCount, Collectors.counting()));
+ * }</pre>
+ */
+public final class TraceCorpus {
+
+    /**
+     * The maximum number of summaries stored in a single part file.
+     */
+    public static final int ROWS_PER_PART = 1 << 16;
+
+    /**
+     * The magic number identifying a part file ("FBCP").
+     */
+    private static final int MAGIC = 0x46424350;
+
+    /**
+     * The version of the file format.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The file name extension of part files.
+     */
+    private static final String EXTENSION = ".fbc";
+
+    /**
+     * The file name extension of part files that are still being written.
+     */
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+
+    /**
+     * All columns, indexed by their ordinal.
+     */
+    private static final Column[] COLUMNS = Column.values();
+
+    /**
+     * All directions, indexed by their ordinal.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The parts of this corpus.
+     */
+    private final @NotNull List<Part> parts;
+
+    /**
+     * Constructs a corpus consisting of the specified parts.
+     *
+     * @param parts the parts of the corpus
+     */
+    private TraceCorpus(final @NotNull List<Part> parts) {
+        this.parts = parts;
+    }
+
+    /**
+     * Opens the corpus in the specified directory by reading the headers of its part files. Part files added to the
+     * directory later are not visible to the returned corpus.
+     *
+     * @param directory the directory of the corpus
+     *
+     * @return the opened corpus
+     *
+     * @throws UncheckedIOException     if the directory or a part file cannot be read
+     * @throws IllegalArgumentException if a part file is corrupt
+     */
+    public static @NotNull TraceCorpus open(final @NotNull Path directory) {
+        final List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            stream.forEach(paths::add);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Could not list trace corpus " + directory, e);
+        }
+        paths.sort(null);
+        return new TraceCorpus(paths.parallelStream().map(Part::read).toList());
+    }
+
+    /**
+     * Creates a writer appending summaries to the corpus in the specified directory, which is created if necessary.
+     * Each writer writes its own part files, so several writers may append to the same corpus concurrently.
+     *
+     * @param directory the directory of the corpus
+     *
+     * @return the writer
+     *
+     * @throws UncheckedIOException if the directory cannot be created
+     */
+    public static @NotNull Writer writer(final @NotNull Path directory) {
+        try {
+            Files.createDirectories(directory);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Could not create trace corpus " + directory, e);
+        }
+        return new Writer(directory);
+    }
+
+    /**
+     * Returns the number of part files of this corpus.
+     *
+     * @return the number of parts
+     */
+    public int getPartCount() {
+        return parts.size();
+    }
+
+    /**
+     * Returns the number of summaries in this corpus.
+     *
+     * @return the number of summaries
+     */
+    public long getRowCount() {
+        long rows = 0;
+        for (final Part part : parts) {
+            rows += part.rowCount;
+        }
+        return rows;
+    }
+
+    /**
+     * Returns a new query matching all summaries of this corpus.
+     *
+     * @return a new query
+     */
+    public @NotNull Query query() {
+        return new Query();
+    }
+
+    /**
+     * The columns of a corpus.
+     */
+    public enum Column {
+
+        /**
+         * The name of the exercise, see {@link TraceSummary#exercise()}.
+         */
+        EXERCISE(true),
+
+        /**
+         * The name of the program, see {@link TraceSummary#program()}.
+         */
+        PROGRAM(true),
+
+        /**
+         * The name of the world fixture, see {@link TraceSummary#fixture()}.
+         */
+        FIXTURE(true),
+
+        /**
+         * The ID of the robot, see {@link TraceSummary#robot()}.
+         */
+        ROBOT(true),
+
+        /**
+         * The number of actions, see {@link TraceSummary#actionCount()}.
+         */
+        ACTION_COUNT(false),
+
+        /**
+         * The number of moves, see {@link TraceSummary#moveCount()}.
+         */
+        MOVE_COUNT(false),
+
+        /**
+         * The number of picked coins, see {@link TraceSummary#pickCount()}.
+         */
+        PICK_COUNT(false),
+
+        /**
+         * The number of put coins, see {@link TraceSummary#putCount()}.
+         */
+        PUT_COUNT(false),
+
+        /**
+         * The number of left turns, see {@link TraceSummary#turnCount()}.
+         */
+        TURN_COUNT(false),
+
+        /**
+         * The final X coordinate, see {@link TraceSummary#x()}.
+         */
+        X(false),
+
+        /**
+         * The final Y coordinate, see {@link TraceSummary#y()}.
+         */
+        Y(false),
+
+        /**
+         * The ordinal of the final direction, see {@link TraceSummary#direction()}.
+         */
+        DIRECTION(false),
+
+        /**
+         * The final number of coins, see {@link TraceSummary#numberOfCoins()}.
+         */
+        NUMBER_OF_COINS(false),
+
+        /**
+         * Whether the robot is turned off as {@code 0} or {@code 1}, see {@link TraceSummary#turnedOff()}.
+         */
+        TURNED_OFF(false),
+
+        /**
+         * Whether the robot crashed as {@code 0} or {@code 1}, see {@link TraceSummary#crashed()}.
+         */
+        CRASHED(false),
+
+        /**
+         * The state hash of the world, see {@link TraceSummary#stateHash()}.
+         */
+        STATE_HASH(false),
+
+        /**
+         * The number of coins on the fields of the world, see {@link TraceSummary#coinsOnBoard()}.
+         */
+        COINS_ON_BOARD(false),
+
+        /**
+         * The duration of the run in nanoseconds, see {@link TraceSummary#duration()}.
+         */
+        DURATION_NANOS(false);
+
+        /**
+         * Whether this column holds strings, which are stored as codes into the dictionary of a part.
+         */
+        private final boolean string;
+
+        /**
+         * Constructs a column.
+         *
+         * @param string whether the column holds strings
+         */
+        Column(final boolean string) {
+            this.string = string;
+        }
+
+        /**
+         * Returns {@code true} if this column holds strings and {@code false} if it holds numbers.
+         *
+         * @return {@code true} if this column holds strings
+         */
+        public boolean isString() {
+            return string;
+        }
+
+        /**
+         * Returns the number of bytes of a value of this column in a part file.
+         *
+         * @return the width of this column in bytes
+         */
+        private int width() {
+            return string ? Integer.BYTES : Long.BYTES;
+        }
+
+        /**
+         * Returns the value of this numeric column of the specified summary.
+         *
+         * @param summary the summary
+         *
+         * @return the value of the column
+         */
+        private long number(final @NotNull TraceSummary summary) {
+            return switch (this) {
+                case ACTION_COUNT -> summary.actionCount();
+                case MOVE_COUNT -> summary.moveCount();
+                case PICK_COUNT -> summary.pickCount();
+                case PUT_COUNT -> summary.putCount();
+                case TURN_COUNT -> summary.turnCount();
+                case X -> summary.x();
+                case Y -> summary.y();
+                case DIRECTION -> summary.direction().ordinal();
+                case NUMBER_OF_COINS -> summary.numberOfCoins();
+                case TURNED_OFF -> summary.turnedOff() ? 1 : 0;
+                case CRASHED -> summary.crashed() ? 1 : 0;
+                case STATE_HASH -> summary.stateHash();
+                case COINS_ON_BOARD -> summary.coinsOnBoard();
+                case DURATION_NANOS -> summary.duration().toNanos();
+                default -> throw new IllegalStateException("Not a numeric column: " + this);
+            };
+        }
+
+        /**
+         * Returns the value of this string column of the specified summary.
+         *
+         * @param summary the summary
+         *
+         * @return the value of the column
+         */
+        private @NotNull String string(final @NotNull TraceSummary summary) {
+            return switch (this) {
+                case EXERCISE -> summary.exercise();
+                case PROGRAM -> summary.program();
+                case FIXTURE -> summary.fixture();
+                case ROBOT -> summary.robot();
+                default -> throw new IllegalStateException("Not a string column: " + this);
+            };
+        }
+    }
+
+    /**
+     * Appends summaries to a corpus. Summaries are buffered in memory and written as a new part file whenever
+     * {@value #ROWS_PER_PART} summaries have been added and when the writer is closed. A writer may be used by several
+     * threads.
+     */
+    public static final class Writer implements AutoCloseable {
+
+        /**
+         * The directory of the corpus.
+         */
+        private final @NotNull Path directory;
+
+        /**
+         * The buffered summaries.
+         */
+        private final @NotNull List<TraceSummary> rows = new ArrayList<>();
+
+        /**
+         * Constructs a writer.
+         *
+         * @param directory the directory of the corpus
+         */
+        private Writer(final @NotNull Path directory) {
+            this.directory = directory;
+        }
+
+        /**
+         * Adds the specified summary to the corpus.
+         *
+         * @param summary the summary to add
+         *
+         * @throws UncheckedIOException if a part file cannot be written
+         */
+        public synchronized void add(final @NotNull TraceSummary summary) {
+            rows.add(summary);
+            if (rows.size() == ROWS_PER_PART) {
+                flush();
+            }
+        }
+
+        /**
+         * Adds the specified summaries to the corpus, e.g. those created by {@link TraceSummary#of(String, RunResult)}.
+         *
+         * @param summaries the summaries to add
+         *
+         * @throws UncheckedIOException if a part file cannot be written
+         */
+        public synchronized void addAll(final @NotNull List<TraceSummary> summaries) {
+            for (final TraceSummary summary : summaries) {
+                add(summary);
+            }
+        }
+
+        /**
+         * Writes the buffered summaries as a new part file.
+         *
+         * @throws UncheckedIOException if the part file cannot be written
+         */
+        public synchronized void flush() {
+            if (rows.isEmpty()) {
+                return;
+            }
+            Path temporary = null;
+            try {
+                temporary = Files.createTempFile(directory, "part-", TEMPORARY_EXTENSION);
+                Part.write(temporary, rows);
+                // queries only read parts with the final extension, so they never see a partially written part
+                final String name = temporary.getFileName().toString();
+                final Path path = directory.resolve(
+                    name.substring(0, name.length() - TEMPORARY_EXTENSION.length()) + EXTENSION
+                );
+                Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final IOException e) {
+                if (temporary != null) {
+                    try {
+                        Files.deleteIfExists(temporary);
+                    } catch (final IOException suppressed) {
+                        e.addSuppressed(suppressed);
+                    }
+                }
+                throw new UncheckedIOException("Could not write trace corpus " + directory, e);
+            }
+            rows.clear();
+        }
+
+        /**
+         * Writes the remaining buffered summaries.
+         *
+         * @throws UncheckedIOException if the part file cannot be written
+         */
+        @Override
+        public void close() {
+            flush();
+        }
+    }
+
+    /**
+     * A query selecting the summaries of a corpus that satisfy all of its predicates.
+     */
+    public final class Query {
+
+        /**
+         * The inclusive lower bounds of the numeric columns, indexed by the ordinals of the columns.
+         */
+        private final long[] min = new long[COLUMNS.length];
+
+        /**
+         * The inclusive upper bounds of the numeric columns, indexed by the ordinals of the columns.
+         */
+        private final long[] max = new long[COLUMNS.length];
+
+        /**
+         * The required values of the string columns, indexed by the ordinals of the columns, or {@code null} for
+         * columns without predicate.
+         */
+        private final String[] values = new String[COLUMNS.length];
+
+        /**
+         * Constructs a query matching all summaries.
+         */
+        private Query() {
+            Arrays.fill(min, Long.MIN_VALUE);
+            Arrays.fill(max, Long.MAX_VALUE);
+        }
+
+        /**
+         * Restricts the specified numeric column to the specified range, in addition to previous restrictions.
+         *
+         * @param column the numeric column
+         * @param from   the inclusive lower bound
+         * @param to     the inclusive upper bound
+         *
+         * @return this query
+         *
+         * @throws IllegalArgumentException if the column holds strings
+         */
+        public @NotNull Query where(final @NotNull Column column, final long from, final long to) {
+            if (column.isString()) {
+                throw new IllegalArgumentException("Not a numeric column: " + column);
+            }
+            min[column.ordinal()] = Math.max(min[column.ordinal()], from);
+            max[column.ordinal()] = Math.min(max[column.ordinal()], to);
+            return this;
+        }
+
+        /**
+         * Restricts the specified numeric column to the specified value.
+         *
+         * @param column the numeric column
+         * @param value  the required value
+         *
+         * @return this query
+         *
+         * @throws IllegalArgumentException if the column holds strings
+         */
+        public @NotNull Query whereEquals(final @NotNull Column column, final long value) {
+            return where(column, value, value);
+        }
+
+        /**
+         * Restricts the specified string column to the specified value.
+         *
+         * @param column the string column
+         * @param value  the required value
+         *
+         * @return this query
+         *
+         * @throws IllegalArgumentException if the column holds numbers or already has to have another value
+         */
+        public @NotNull Query whereEquals(final @NotNull Column column, final @NotNull String value) {
+            if (!column.isString()) {
+                throw new IllegalArgumentException("Not a string column: " + column);
+            }
+            if (values[column.ordinal()] != null && !values[column.ordinal()].equals(value)) {
+                throw new IllegalArgumentException("Conflicting values for " + column + ": " + value);
+            }
+            values[column.ordinal()] = value;
+            return this;
+        }
+
+        /**
+         * Returns a parallel stream of the matching summaries. Parts whose indexes rule out a match are skipped
+         * without reading their columns.
+         *
+         * @return the matching summaries
+         *
+         * @throws UncheckedIOException if a part file cannot be read
+         */
+        public @NotNull Stream<TraceSummary> stream() {
+            return parts.parallelStream().flatMap(part -> part.scan(this).stream());
+        }
+
+        /**
+         * Returns the matching summaries.
+         *
+         * @return the matching summaries
+         *
+         * @throws UncheckedIOException if a part file cannot be read
+         */
+        public @NotNull List<TraceSummary> toList() {
+            return stream().toList();
+        }
+
+        /**
+         * Returns the number of matching summaries. Only the columns of the predicates are read.
+         *
+         * @return the number of matching summaries
+         *
+         * @throws UncheckedIOException if a part file cannot be read
+         */
+        public long count() {
+            return parts.parallelStream().mapToLong(part -> part.count(this)).sum();
+        }
+    }
+
+    /**
+     * A part file of a corpus with its indexes.
+     *
+     * <p>A part file starts with the magic number, the format version and the length of the header. The header
+     * consists of the number of rows followed by the index of each column, which is the dictionary for string columns
+     * and the minimum and maximum for numeric columns. The values of the columns follow the header column by column,
+     * as dictionary codes for string columns and as {@code long}s for numeric columns.
+     *
+     * @param path         the path of the part file
+     * @param rowCount     the number of rows
+     * @param dataStart    the position of the first column in the file
+     * @param min          the minimum of each numeric column, indexed by the ordinals of the columns
+     * @param max          the maximum of each numeric column, indexed by the ordinals of the columns
+     * @param dictionaries the dictionary of each string column, indexed by the ordinals of the columns, or
+     *                     {@code null} for numeric columns
+     */
+    private record Part(
+        @NotNull Path path,
+        int rowCount,
+        long dataStart,
+        long[] min,
+        long[] max,
+        List<String>[] dictionaries
+    ) {
+
+        /**
+         * Writes the specified summaries to a part file.
+         *
+         * @param path the path of the part file
+         * @param rows the summaries to write
+         *
+         * @throws IOException if the file cannot be written
+         */
+        static void write(final @NotNull Path path, final @NotNull List<TraceSummary> rows) throws IOException {
+            final ByteArrayOutputStream header = new ByteArrayOutputStream();
+            final DataOutputStream headerOut = new DataOutputStream(header);
+            headerOut.writeInt(rows.size());
+            long dataLength = 0;
+            final List<Map<String, Integer>> dictionaries = new ArrayList<>();
+            for (final Column column : COLUMNS) {
+                if (column.isString()) {
+                    final Map<String, Integer> dictionary = new LinkedHashMap<>();
+                    for (final TraceSummary row : rows) {
+                        dictionary.putIfAbsent(column.string(row), dictionary.size());
+                    }
+                    headerOut.writeInt(dictionary.size());
+                    for (final String value : dictionary.keySet()) {
+                        headerOut.writeUTF(value);
+                    }
+                    dictionaries.add(dictionary);
+                } else {
+                    long min = Long.MAX_VALUE;
+                    long max = Long.MIN_VALUE;
+                    for (final TraceSummary row : rows) {
+                        min = Math.min(min, column.number(row));
+                        max = Math.max(max, column.number(row));
+                    }
+                    headerOut.writeLong(min);
+                    headerOut.writeLong(max);
+                    dictionaries.add(null);
+                }
+                dataLength += (long) rows.size() * column.width();
+            }
+            headerOut.flush();
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                final ByteBuffer buffer = channel.map(
+                    FileChannel.MapMode.READ_WRITE,
+                    0,
+                    3L * Integer.BYTES + header.size() + dataLength
+                );
+                buffer.putInt(MAGIC).putInt(VERSION).putInt(header.size()).put(header.toByteArray());
+                for (final Column column : COLUMNS) {
+                    final Map<String, Integer> dictionary = dictionaries.get(column.ordinal());
+                    for (final TraceSummary row : rows) {
+                        if (dictionary != null) {
+                            buffer.putInt(dictionary.get(column.string(row)));
+                        } else {
+                            buffer.putLong(column.number(row));
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Reads the header of the specified part file.
+         *
+         * @param path the path of the part file
+         *
+         * @return the part
+         *
+         * @throws UncheckedIOException     if the file cannot be read
+         * @throws IllegalArgumentException if the file is not a part file
+         */
+        @SuppressWarnings("unchecked")
+        static @NotNull Part read(final @NotNull Path path) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                final DataInputStream in = new DataInputStream(Channels.newInputStream(channel));
+                if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                    throw new IllegalArgumentException("Not a trace corpus part: " + path);
+                }
+                final int headerLength = in.readInt();
+                final int rowCount = in.readInt();
+                final long[] min = new long[COLUMNS.length];
+                final long[] max = new long[COLUMNS.length];
+                final List<String>[] dictionaries = (List<String>[]) new List<?>[COLUMNS.length];
+                for (final Column column : COLUMNS) {
+                    if (column.isString()) {
+                        final String[] dictionary = new String[in.readInt()];
+                        for (int i = 0; i < dictionary.length; i++) {
+                            dictionary[i] = in.readUTF();
+                        }
+                        dictionaries[column.ordinal()] = List.of(dictionary);
+                    } else {
+                        min[column.ordinal()] = in.readLong();
+                        max[column.ordinal()] = in.readLong();
+                    }
+                }
+                return new Part(path, rowCount, 3L * Integer.BYTES + headerLength, min, max, dictionaries);
+            } catch (final IOException e) {
+                throw new UncheckedIOException("Could not read trace corpus part " + path, e);
+            }
+        }
+
+        /**
+         * Returns the dictionary codes of the values required by the specified query for the string columns of this
+         * part, or {@code null} if a required value does not occur in this part.
+         *
+         * @param query the query
+         *
+         * @return the required codes indexed by the ordinals of the columns, {@code -1} for columns without predicate,
+         *     or {@code null} if no row of this part can match
+         */
+        private int[] codes(final @NotNull Query query) {
+            final int[] codes = new int[COLUMNS.length];
+            Arrays.fill(codes, -1);
+            for (final Column column : COLUMNS) {
+                final int index = column.ordinal();
+                if (column.isString() && query.values[index] != null) {
+                    codes[index] = dictionaries[index].indexOf(query.values[index]);
+                    if (codes[index] < 0) {
+                        return null;
+                    }
+                } else if (!column.isString() && (max[index] < query.min[index] || min[index] > query.max[index])) {
+                    return null;
+                }
+            }
+            return codes;
+        }
+
+        /**
+         * Returns the position of the specified column in the mapped data.
+         *
+         * @param column the column
+         *
+         * @return the position of the first value of the column
+         */
+        private int position(final @NotNull Column column) {
+            int position = 0;
+            for (int i = 0; i < column.ordinal(); i++) {
+                position += rowCount * COLUMNS[i].width();
+            }
+            return position;
+        }
+
+        /**
+         * Maps the data of this part.
+         *
+         * @return the buffer containing the columns
+         *
+         * @throws UncheckedIOException if the file cannot be read
+         */
+        private @NotNull ByteBuffer map() {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, dataStart, channel.size() - dataStart);
+            } catch (final IOException e) {
+                throw new UncheckedIOException("Could not read trace corpus part " + path, e);
+            }
+        }
+
+        /**
+         * Returns the indexes of the rows of this part that match the specified query, evaluating one predicate
+         * column after the other on the rows that satisfied the previous ones.
+         *
+         * @param query the query
+         * @param data  the mapped data of this part
+         * @param codes the required dictionary codes, see {@link #codes(Query)}
+         *
+         * @return the indexes of the matching rows
+         */
+        private int[] filter(final @NotNull Query query, final @NotNull ByteBuffer data, final int[] codes) {
+            int[] rows = new int[rowCount];
+            int length = rowCount;
+            for (int i = 0; i < rowCount; i++) {
+                rows[i] = i;
+            }
+            for (final Column column : COLUMNS) {
+                final int index = column.ordinal();
+                final boolean restricted = column.isString()
+                    ? codes[index] >= 0
+                    : min[index] < query.min[index] || max[index] > query.max[index];
+                if (!restricted) {
+                    continue;
+                }
+                final int position = position(column);
+                int matches = 0;
+                for (int i = 0; i < length; i++) {
+                    final int row = rows[i];
+                    final boolean match;
+                    if (column.isString()) {
+                        match = data.getInt(position + row * Integer.BYTES) == codes[index];
+                    } else {
+                        final long value = data.getLong(position + row * Long.BYTES);
+                        match = value >= query.min[index] && value <= query.max[index];
+                    }
+                    if (match) {
+                        rows[matches++] = row;
+                    }
+                }
+                length = matches;
+            }
+            return length == rowCount ? rows : Arrays.copyOf(rows, length);
+        }
+
+        /**
+         * Returns the number of rows of this part matching the specified query.
+         *
+         * @param query the query
+         *
+         * @return the number of matching rows
+         *
+         * @throws UncheckedIOException if the file cannot be read
+         */
+        long count(final @NotNull Query query) {
+            final int[] codes = codes(query);
+            return codes == null ? 0 : filter(query, map(), codes).length;
+        }
+
+        /**
+         * Returns the rows of this part matching the specified query.
+         *
+         * @param query the query
+         *
+         * @return the matching rows
+         *
+         * @throws UncheckedIOException if the file cannot be read
+         */
+        @NotNull List<TraceSummary> scan(final @NotNull Query query) {
+            final int[] codes = codes(query);
+            if (codes == null) {
+                return List.of();
+            }
+            final ByteBuffer data = map();
+            final int[] rows = filter(query, data, codes);
+            final int[] positions = new int[COLUMNS.length];
+            for (final Column column : COLUMNS) {
+                positions[column.ordinal()] = position(column);
+            }
+            final List<TraceSummary> summaries = new ArrayList<>(rows.length);
+            for (final int row : rows) {
+                summaries.add(new TraceSummary(
+                    string(data, positions, Column.EXERCISE, row),
+                    string(data, positions, Column.PROGRAM, row),
+                    string(data, positions, Column.FIXTURE, row),
+                    string(data, positions, Column.ROBOT, row),
+                    number(data, positions, Column.ACTION_COUNT, row),
+                    number(data, positions, Column.MOVE_COUNT, row),
+                    number(data, positions, Column.PICK_COUNT, row),
+                    number(data, positions, Column.PUT_COUNT, row),
+                    number(data, positions, Column.TURN_COUNT, row),
+                    (int) number(data, positions, Column.X, row),
+                    (int) number(data, positions, Column.Y, row),
+                    DIRECTIONS[(int) number(data, positions, Column.DIRECTION, row)],
+                    (int) number(data, positions, Column.NUMBER_OF_COINS, row),
+                    number(data, positions, Column.TURNED_OFF, row) != 0,
+                    number(data, positions, Column.CRASHED, row) != 0,
+                    number(data, positions, Column.STATE_HASH, row),
+                    number(data, positions, Column.COINS_ON_BOARD, row),
+                    Duration.ofNanos(number(data, positions, Column.DURATION_NANOS, row))
+                ));
+            }
+            return summaries;
+        }
+
+        /**
+         * Reads the value of a string column of a row.
+         *
+         * @param data      the mapped data of this part
+         * @param positions the positions of the columns
+         * @param column    the string column
+         * @param row       the index of the row
+         *
+         * @return the value
+         */
+        private @NotNull String string(
+            final @NotNull ByteBuffer data,
+            final int[] positions,
+            final @NotNull Column column,
+            final int row
+        ) {
+            return dictionaries[column.ordinal()].get(data.getInt(positions[column.ordinal()] + row * Integer.BYTES));
+        }
+
+        /**
+         * Reads the value of a numeric column of a row.
+         *
+         * @param data      the mapped data of this part
+         * @param positions the positions of the columns
+         * @param column    the numeric column
+         * @param row       the index of the row
+         *
+         * @return the value
+         */
+        private long number(
+            final @NotNull ByteBuffer data,
+            final int[] positions,
+            final @NotNull Column column,
+            final int row
+        ) {
+            return data.getLong(positions[column.ordinal()] + row * Long.BYTES);
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package fopbot;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The differences between two {@link RobotTrace}s, e.g. the trace of a reference solution and the trace of a
+ * submission, as a shortest edit script turning the expected transitions into the actual ones.
+ *
+ * <p>Two transitions are considered equal if they have the same action and the robot is in the same state, i.e. has
+ * the same position, direction, number of coins and is turned on or off alike. Step numbers are ignored, since they
+ * depend on the other robots of the world. The edit script is computed with the linear-space variant of Myers' O(ND)
+ * difference algorithm on the packed states of the traces, so it takes time proportional to the length of the traces
+ * times the number of differences and memory linear in the length of the traces, and no transitions are
+ * materialized.
+ *
+ * <pre>{@code
+ * final TraceDiff diff = TraceDiff.compute(world.getTrace(reference), world.getTrace(submission));
+ * final TraceDiff.Edit divergence = diff.getFirstDivergence();
+ * if (divergence != null) {
+ *     System.out.println("Diverged after " + divergence.expectedIndex() + " matching actions: " + diff.getEdits());
+ * }
+ * }</pre>
+ */
+public final class TraceDiff {
+
+    /**
+     * The edits turning the expected transitions into the actual ones, ordered by their positions.
+     */
+    private final @NotNull List<Edit> edits;
+
+    /**
+     * The number of expected transitions.
+     */
+    private final int expectedSize;
+
+    /**
+     * The number of actual transitions.
+     */
+    private final int actualSize;
+
+    /**
+     * Constructs a diff.
+     *
+     * @param edits        the edits turning the expected transitions into the actual ones
+     * @param expectedSize the number of expected transitions
+     * @param actualSize   the number of actual transitions
+     */
+    private TraceDiff(final @NotNull List<Edit> edits, final int expectedSize, final int actualSize) {
+        this.edits = Collections.unmodifiableList(edits);
+        this.expectedSize = expectedSize;
+        this.actualSize = actualSize;
+    }
+
+    /**
+     * Computes the differences between the specified traces.
+     *
+     * @param expected the expected trace, e.g. of a reference solution
+     * @param actual   the actual trace
+     *
+     * @return the differences between the traces
+     */
+    public static @NotNull TraceDiff compute(final @NotNull RobotTrace expected, final @NotNull RobotTrace actual) {
+        final long[] expectedStates = new long[expected.size()];
+        final int[] expectedCoins = new int[expected.size()];
+        expected.copyStates(expectedStates, expectedCoins);
+        final long[] actualStates = new long[actual.size()];
+        final int[] actualCoins = new int[actual.size()];
+        actual.copyStates(actualStates, actualCoins);
+        final Differ differ = new Differ(expectedStates, expectedCoins, actualStates, actualCoins);
+        differ.diff(0, expectedStates.length, 0, actualStates.length);
+        return new TraceDiff(differ.edits, expectedStates.length, actualStates.length);
+    }
+
+    /**
+     * Returns the edits turning the expected transitions into the actual ones, ordered by their positions. Adjacent
+     * edits of the same operation are merged, and transitions not covered by an edit are equal.
+     *
+     * @return the edit script
+     */
+    public @NotNull List<Edit> getEdits() {
+        return edits;
+    }
+
+    /**
+     * Returns the first edit, whose indices are the numbers of transitions both traces have in common before they
+     * diverge.
+     *
+     * @return the first edit or {@code null} if the traces are equal
+     */
+    public @Nullable Edit getFirstDivergence() {
+        return edits.isEmpty() ? null : edits.get(0);
+    }
+
+    /**
+     * Returns the number of transitions that have to be deleted or inserted to turn the expected transitions into the
+     * actual ones, i.e. the edit distance of the traces.
+     *
+     * @return the edit distance
+     */
+    public long getDistance() {
+        long distance = 0;
+        for (final Edit edit : edits) {
+            distance += edit.length();
+        }
+        return distance;
+    }
+
+    /**
+     * Returns {@code true} if the traces are equal, i.e. there are no edits.
+     *
+     * @return {@code true} if the traces are equal
+     */
+    public boolean isIdentical() {
+        return edits.isEmpty();
+    }
+
+    /**
+     * Returns the number of expected transitions.
+     *
+     * @return the number of expected transitions
+     */
+    public int getExpectedSize() {
+        return expectedSize;
+    }
+
+    /**
+     * Returns the number of actual transitions.
+     *
+     * @return the number of actual transitions
+     */
+    public int getActualSize() {
+        return actualSize;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return "TraceDiff{"
+            + "distance=" + getDistance()
+            + ", edits=" + edits
+            + '}';
+    }
+
+    /**
+     * The operations of an edit script.
+     */
+    public enum Operation {
+
+        /**
+         * Expected transitions missing from the actual trace.
+         */
+        DELETE,
+
+        /**
+         * Actual transitions missing from the expected trace.
+         */
+        INSERT
+    }
+
+    /**
+     * A run of transitions that have been deleted from the expected trace or inserted into the actual trace.
+     *
+     * @param operation     the operation of the edit
+     * @param expectedIndex the index of the first deleted expected transition or, for an insertion, of the expected
+     *                      transition before which the actual transitions are inserted
+     * @param actualIndex   the index of the first inserted actual transition or, for a deletion, of the actual
+     *                      transition at which the expected transitions are deleted
+     * @param length        the number of deleted or inserted transitions
+     */
+    public record Edit(@NotNull Operation operation, int expectedIndex, int actualIndex, int length) {
+    }
+
+    /**
+     * The state of a single computation of an edit script.
+     */
+    private static final class Differ {
+
+        /**
+         * The packed expected states.
+         */
+        private final long[] expectedStates;
+
+        /**
+         * The expected numbers of coins.
+         */
+        private final int[] expectedCoins;
+
+        /**
+         * The packed actual states.
+         */
+        private final long[] actualStates;
+
+        /**
+         * The actual numbers of coins.
+         */
+        private final int[] actualCoins;
+
+        /**
+         * The furthest reaching forward paths, indexed by their diagonals plus {@link #offset}.
+         */
+        private final int[] forward;
+
+        /**
+         * The furthest reaching backward paths, indexed by their diagonals plus {@link #offset}.
+         */
+        private final int[] backward;
+
+        /**
+         * The offset of diagonal {@code 0} in {@link #forward} and {@link #backward}.
+         */
+        private final int offset;
+
+        /**
+         * The edits found so far.
+         */
+        private final @NotNull List<Edit> edits = new ArrayList<>();
+
+        /**
+         * Constructs the computation of the edit script between the specified states.
+         *
+         * @param expectedStates the packed expected states
+         * @param expectedCoins  the expected numbers of coins
+         * @param actualStates   the packed actual states
+         * @param actualCoins    the actual numbers of coins
+         */
+        private Differ(
+            final long[] expectedStates,
+            final int[] expectedCoins,
+            final long[] actualStates,
+            final int[] actualCoins
+        ) {
+            this.expectedStates = expectedStates;
+            this.expectedCoins = expectedCoins;
+            this.actualStates = actualStates;
+            this.actualCoins = actualCoins;
+            // the diagonals of every subproblem lie within those of the whole problem
+            this.offset = (expectedStates.length + actualStates.length + 1) / 2 + 1;
+            this.forward = new int[2 * offset + 1];
+            this.backward = new int[2 * offset + 1];
+        }
+
+        /**
+         * Returns {@code true} if the specified expected and actual transitions are equal.
+         *
+         * @param expected the index of the expected transition
+         * @param actual   the index of the actual transition
+         *
+         * @return {@code true} if the transitions are equal
+         */
+        private boolean equal(final int expected, final int actual) {
+            return expectedStates[expected] == actualStates[actual] && expectedCoins[expected] == actualCoins[actual];
+        }
+
+        /**
+         * Appends an edit, merging it with the previous edit if it continues it.
+         *
+         * @param operation     the operation of the edit
+         * @param expectedIndex the expected index of the edit
+         * @param actualIndex   the actual index of the edit
+         * @param length        the number of transitions of the edit
+         */
+        private void addEdit(
+            final @NotNull Operation operation,
+            final int expectedIndex,
+            final int actualIndex,
+            final int length
+        ) {
+            if (!edits.isEmpty()) {
+                final Edit last = edits.get(edits.size() - 1);
+                final boolean continues = operation == Operation.DELETE
+                    ? last.expectedIndex() + last.length() == expectedIndex && last.actualIndex() == actualIndex
+                    : last.actualIndex() + last.length() == actualIndex && last.expectedIndex() == expectedIndex;
+                if (last.operation() == operation && continues) {
+                    edits.set(
+                        edits.size() - 1,
+                        new Edit(operation, last.expectedIndex(), last.actualIndex(), last.length() + length)
+                    );
+                    return;
+                }
+            }
+            edits.add(new Edit(operation, expectedIndex, actualIndex, length));
+        }
+
+        /**
+         * Computes the edits between the specified ranges of the expected and actual states by splitting them at the
+         * middle snake of a shortest edit script.
+         *
+         * @param expectedFrom the index of the first expected transition
+         * @param expectedTo   the index after the last expected transition
+         * @param actualFrom   the index of the first actual transition
+         * @param actualTo     the index after the last actual transition
+         */
+        private void diff(final int expectedFrom, final int expectedTo, final int actualFrom, final int actualTo) {
+            int expectedStart = expectedFrom;
+            int expectedEnd = expectedTo;
+            int actualStart = actualFrom;
+            int actualEnd = actualTo;
+            while (expectedStart < expectedEnd && actualStart < actualEnd && equal(expectedStart, actualStart)) {
+                expectedStart++;
+                actualStart++;
+            }
+            while (expectedStart < expectedEnd && actualStart < actualEnd && equal(expectedEnd - 1, actualEnd - 1)) {
+                expectedEnd--;
+                actualEnd--;
+            }
+            if (expectedStart == expectedEnd) {
+                if (actualStart < actualEnd) {
+                    addEdit(Operation.INSERT, expectedStart, actualStart, actualEnd - actualStart);
+                }
+            } else if (actualStart == actualEnd) {
+                addEdit(Operation.DELETE, expectedStart, actualStart, expectedEnd - expectedStart);
+            } else {
+                final long snake = findMiddleSnake(expectedStart, expectedEnd, actualStart, actualEnd);
+                final int x = (int) (snake >>> 32);
+                final int y = (int) snake;
+                diff(expectedStart, x, actualStart, y);
+                diff(x, expectedEnd, y, actualEnd);
+            }
+        }
+
+        /**
+         * Finds a point on the middle snake of a shortest edit script between the specified ranges, which are not
+         * empty and differ in their first and last transitions. Searches forward from the start and backward from the
+         * end at the same time until the furthest reaching paths overlap.
+         *
+         * @param expectedStart the index of the first expected transition
+         * @param expectedEnd   the index after the last expected transition
+         * @param actualStart   the index of the first actual transition
+         * @param actualEnd     the index after the last actual transition
+         *
+         * @return the expected index of the point in the upper and the actual index in the lower 32 bits
+         */
+        private long findMiddleSnake(
+            final int expectedStart,
+            final int expectedEnd,
+            final int actualStart,
+            final int actualEnd
+        ) {
+            final int n = expectedEnd - expectedStart;
+            final int m = actualEnd - actualStart;
+            final int delta = n - m;
+            final boolean odd = (delta & 1) != 0;
+            forward[offset + 1] = 0;
+            backward[offset + 1] = 0;
+            for (int d = 0; d <= (n + m + 1) / 2; d++) {
+                for (int k = -d; k <= d; k += 2) {
+                    int x = k == -d || k != d && forward[offset + k - 1] < forward[offset + k + 1]
+                        ? forward[offset + k + 1]
+                        : forward[offset + k - 1] + 1;
+                    int y = x - k;
+                    while (x < n && y < m && equal(expectedStart + x, actualStart + y)) {
+                        x++;
+                        y++;
+                    }
+                    forward[offset + k] = x;
+                    if (odd && k >= delta - (d - 1) && k <= delta + (d - 1)
+                        && x + backward[offset + delta - k] >= n) {
+                        return (long) (expectedStart + x) << 32 | actualStart + y;
+                    }
+                }
+                for (int k = -d; k <= d; k += 2) {
+                    int x = k == -d || k != d && backward[offset + k - 1] < backward[offset + k + 1]
+                        ? backward[offset + k + 1]
+                        : backward[offset + k - 1] + 1;
+                    int y = x - k;
+                    while (x < n && y < m && equal(expectedEnd - 1 - x, actualEnd - 1 - y)) {
+                        x++;
+                        y++;
+                    }
+                    backward[offset + k] = x;
+                    if (!odd && k >= delta - d && k <= delta + d && x + forward[offset + delta - k] >= n) {
+                        return (long) (expectedEnd - x) << 32 | actualEnd - y;
+                    }
+                }
+            }
+            throw new IllegalStateException("No middle snake found");
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package fopbot;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An append-only binary file holding the entries of a {@link RobotTrace} that have been spilled from memory.
+ *
+ * <p>The file starts with a header consisting of a magic number, the format version, the number of entries and the
+ * number of transitions, followed by the entries as fixed-size records of the step number, the packed state, the
+ * number of coins and the repetition count. Entries are written and read through memory-mapped regions, and the file
+ * is only opened for the duration of each access, so a log does not hold any resources between accesses. The file is
+ * not deleted automatically and can be {@linkplain RobotTrace#load(Path) loaded} again, e.g. after the JVM exited.
+ */
+final class TraceLog {
+
+    /**
+     * The magic number identifying a trace log ("FBTR").
+     */
+    private static final int MAGIC = 0x46425452;
+
+    /**
+     * The version of the file format.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The size of the header in bytes.
+     */
+    static final int HEADER_BYTES = 24;
+
+    /**
+     * The size of an entry record in bytes.
+     */
+    static final int RECORD_BYTES = 20;
+
+    /**
+     * The path of the file.
+     */
+    private final @NotNull Path path;
+
+    /**
+     * Constructs a log backed by the specified file.
+     *
+     * @param path the path of the file
+     */
+    private TraceLog(final @NotNull Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Creates a new empty log in the specified file, replacing an existing file.
+     *
+     * @param path the path of the file
+     *
+     * @return the created log
+     *
+     * @throws UncheckedIOException if the file cannot be written
+     */
+    static @NotNull TraceLog create(final @NotNull Path path) {
+        final TraceLog log = new TraceLog(path);
+        try (FileChannel channel = FileChannel.open(
+            path,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING
+        )) {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putLong(0)
+                .putLong(0)
+                .flip();
+            channel.write(header, 0);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Could not create trace log " + path, e);
+        }
+        return log;
+    }
+
+    /**
+     * Reads the header of an existing log.
+     *
+     * @param path the path of the file
+     *
+     * @return the header of the log
+     *
+     * @throws UncheckedIOException     if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a trace log
+     */
+    static @NotNull Header readHeader(final @NotNull Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            channel.read(header, 0);
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IllegalArgumentException("Not a trace log: " + path);
+            }
+            return new Header(header.getLong(), header.getLong());
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Could not read trace log " + path, e);
+        }
+    }
+
+    /**
+     * Opens an existing log.
+     *
+     * @param path the path of the file
+     *
+     * @return the opened log
+     */
+    static @NotNull TraceLog open(final @NotNull Path path) {
+        return new TraceLog(path);
+    }
+
+    /**
+     * Returns the path of the file.
+     *
+     * @return the path of the file
+     */
+    @NotNull Path getPath() {
+        return path;
+    }
+
+    /**
+     * Writes the specified entries starting at the specified entry index and updates the counts in the header. The
+     * repetition counts of the entries are derived from their cumulative transition counts.
+     *
+     * @param firstEntry  the index of the first entry to write
+     * @param steps       the step numbers of the entries
+     * @param states      the packed states of the entries
+     * @param coins       the numbers of coins of the entries
+     * @param ends        the numbers of transitions up to and including the entries
+     * @param previousEnd the number of transitions before the first entry
+     * @param length      the number of entries to write
+     * @param size        the total number of transitions in the log after writing
+     *
+     * @throws UncheckedIOException if the file cannot be written
+     */
+    void write(
+        final long firstEntry,
+        final int[] steps,
+        final long[] states,
+        final int[] coins,
+        final int[] ends,
+        final int previousEnd,
+        final int length,
+        final long size
+    ) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (length > 0) {
+                final MappedByteBuffer buffer = channel.map(
+                    FileChannel.MapMode.READ_WRITE,
+                    HEADER_BYTES + firstEntry * RECORD_BYTES,
+                    (long) length * RECORD_BYTES
+                );
+                for (int i = 0; i < length; i++) {
+                    buffer.putInt(steps[i]);
+                    buffer.putLong(states[i]);
+                    buffer.putInt(coins[i]);
+                    buffer.putInt(ends[i] - (i == 0 ? previousEnd : ends[i - 1]));
+                }
+            }
+            final MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            header.putLong(8, firstEntry + length);
+            header.putLong(16, size);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Could not write trace log " + path, e);
+        }
+    }
+
+    /**
+     * Maps the specified range of entries for reading. The records of the entries start at the beginning of the
+     * returned buffer and are {@value #RECORD_BYTES} bytes apart.
+     *
+     * @param firstEntry the index of the first entry to map
+     * @param length     the number of entries to map
+     *
+     * @return the buffer containing the records of the entries
+     *
+     * @throws UncheckedIOException if the file cannot be read
+     */
+    @NotNull ByteBuffer map(final long firstEntry, final int length) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(
+                FileChannel.MapMode.READ_ONLY,
+                HEADER_BYTES + firstEntry * RECORD_BYTES,
+                (long) length * RECORD_BYTES
+            );
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Could not read trace log " + path, e);
+        }
+    }
+
+    /**
+     * The header of a trace log.
+     *
+     * @param entryCount the number of entries in the log
+     * @param size       the number of transitions in the log
+     */
+    record Header(long entryCount, long size) {
+    }
+}
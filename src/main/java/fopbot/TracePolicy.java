@@ -0,0 +1,118 @@
+package fopbot;
+
+import fopbot.Transition.RobotAction;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Determines which actions traced by a {@link RobotTrace} are recorded as transitions.
+ *
+ * <p>An action is recorded if its type is one of the selected actions and, counting only actions of the selected
+ * types, it is the first of every {@code interval} actions. If the capacity is bounded, the trace acts as a flight
+ * recorder that keeps only the most recent {@code capacity} transitions, e.g. to find out what a robot stuck in an
+ * infinite loop was doing. Actions that are not recorded are still counted, so
+ * {@link RobotTrace#getActionCount(RobotAction)} and the action limit of the world stay exact.
+ *
+ * <pre>{@code
+ * world.setTracePolicy(TracePolicy.ALL.withActions(RobotAction.PICK_COIN, RobotAction.PUT_COIN));
+ * world.setTracePolicy(robot, TracePolicy.ALL.withCapacity(1000));
+ * }</pre>
+ *
+ * @param actions  the types of the actions to record
+ * @param interval the number of selected actions per recorded action, at least {@code 1}
+ * @param capacity the maximum number of transitions to keep or {@link #UNBOUNDED}
+ * @see KarelWorld#setTracePolicy(TracePolicy)
+ */
+public record TracePolicy(@NotNull Set<RobotAction> actions, int interval, int capacity) {
+
+    /**
+     * The capacity of a trace that keeps all recorded transitions.
+     */
+    public static final int UNBOUNDED = -1;
+
+    /**
+     * The policy recording every action, which is the default.
+     */
+    public static final TracePolicy ALL = new TracePolicy(EnumSet.allOf(RobotAction.class), 1, UNBOUNDED);
+
+    /**
+     * Constructs a policy.
+     *
+     * @param actions  the types of the actions to record
+     * @param interval the number of selected actions per recorded action, at least {@code 1}
+     * @param capacity the maximum number of transitions to keep or {@link #UNBOUNDED}
+     *
+     * @throws IllegalArgumentException if the interval is smaller than {@code 1} or the capacity is neither positive
+     *                                  nor {@link #UNBOUNDED}
+     */
+    public TracePolicy {
+        if (interval < 1) {
+            throw new IllegalArgumentException("Interval must be positive: " + interval);
+        }
+        if (capacity < 1 && capacity != UNBOUNDED) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        actions = Set.copyOf(actions);
+    }
+
+    /**
+     * Returns a copy of this policy that only records the specified types of actions. Passing no actions records
+     * nothing, so tracing only counts the actions.
+     *
+     * @param actions the types of the actions to record
+     *
+     * @return the modified policy
+     */
+    public @NotNull TracePolicy withActions(final @NotNull RobotAction... actions) {
+        return new TracePolicy(Set.copyOf(Arrays.asList(actions)), interval, capacity);
+    }
+
+    /**
+     * Returns a copy of this policy that only records every {@code interval}-th selected action.
+     *
+     * @param interval the number of selected actions per recorded action, at least {@code 1}
+     *
+     * @return the modified policy
+     *
+     * @throws IllegalArgumentException if the interval is smaller than {@code 1}
+     */
+    public @NotNull TracePolicy withInterval(final int interval) {
+        return new TracePolicy(actions, interval, capacity);
+    }
+
+    /**
+     * Returns a copy of this policy that keeps only the most recent {@code capacity} transitions.
+     *
+     * @param capacity the maximum number of transitions to keep or {@link #UNBOUNDED}
+     *
+     * @return the modified policy
+     *
+     * @throws IllegalArgumentException if the capacity is neither positive nor {@link #UNBOUNDED}
+     */
+    public @NotNull TracePolicy withCapacity(final int capacity) {
+        return new TracePolicy(actions, interval, capacity);
+    }
+
+    /**
+     * Returns {@code true} if actions of the specified type are selected for recording.
+     *
+     * @param action the type of the action
+     *
+     * @return {@code true} if the action is selected
+     */
+    public boolean isSelected(final @NotNull RobotAction action) {
+        return actions.contains(action);
+    }
+
+    /**
+     * Returns {@code true} if this policy keeps only a bounded number of transitions.
+     *
+     * @return {@code true} if the capacity is bounded
+     */
+    public boolean isBounded() {
+        return capacity != UNBOUNDED;
+    }
+}
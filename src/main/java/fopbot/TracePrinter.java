@@ -0,0 +1,344 @@
+package fopbot;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Prints the states of the robots of a world that have {@linkplain Robot#setPrintTrace(boolean) trace printing}
+ * enabled without blocking them.
+ *
+ * <p>Robots only capture their state in a bounded lock-free ring buffer, and a background writer formats the states
+ * and writes them in large batches to {@link System#out} or, if {@linkplain #setLogging(boolean) logging} is enabled,
+ * to the SLF4J logger of this class. The lines of a world are printed in the order the actions were performed. A robot
+ * only waits for the writer if the buffer is full. The writer is a daemon thread that is started on demand, parks
+ * while the buffer is empty and is woken up by the next line. It stops once the buffer has been empty for a second,
+ * which is much longer than the usual delay between two actions, and it never keeps the program running. Instead, the pending lines of all
+ * printers are flushed by a shutdown hook when the program ends.
+ *
+ * <pre>{@code
+ * robot.setPrintTrace(true);
+ * robot.move();
+ * world.getTracePrinter().flush();
+ * }</pre>
+ */
+public final class TracePrinter {
+
+    /**
+     * The default number of lines that can be buffered.
+     */
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    /**
+     * The maximum number of lines written at once.
+     */
+    private static final int BATCH_SIZE = 1024;
+
+    /**
+     * The time in nanoseconds a robot waiting for a free slot or a flushing thread waits before checking the buffer
+     * again.
+     */
+    private static final long WAIT_NANOS = 10_000;
+
+    /**
+     * The time in nanoseconds an idle writer waits for further lines before it stops.
+     */
+    private static final long IDLE_NANOS = 1_000_000_000;
+
+    /**
+     * The logger the lines are written to if logging is enabled.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(TracePrinter.class);
+
+    /**
+     * The printers whose pending lines are flushed when the program ends.
+     */
+    private static final Set<TracePrinter> PRINTERS = Collections.newSetFromMap(new WeakHashMap<>());
+
+    static {
+        Runtime.getRuntime().addShutdownHook(
+            Thread.ofPlatform().name("fopbot-trace-printer-shutdown").unstarted(TracePrinter::flushAll)
+        );
+    }
+
+    /**
+     * The buffered lines, indexed by their positions modulo the capacity.
+     */
+    private final AtomicReferenceArray<Line> lines;
+
+    /**
+     * The sequence numbers of the slots of the buffer. A slot is free for the line at position {@code p} if its
+     * sequence number is {@code p} and holds that line if it is {@code p + 1}.
+     */
+    private final AtomicLongArray sequences;
+
+    /**
+     * The mask mapping positions to slots, i.e. the capacity minus one.
+     */
+    private final int mask;
+
+    /**
+     * The position of the next line to be enqueued.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * The position of the next line to be written. Only modified by the running writer.
+     */
+    private volatile long head;
+
+    /**
+     * The number of lines that have been written.
+     */
+    private volatile long written;
+
+    /**
+     * Whether a writer is running.
+     */
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * The running writer or the last one that has stopped.
+     */
+    private volatile @Nullable Thread writer;
+
+    /**
+     * Whether the running writer is about to park or parked because the buffer is empty.
+     */
+    private volatile boolean parked;
+
+    /**
+     * Whether the lines are written to the SLF4J logger instead of {@link System#out}.
+     */
+    private volatile boolean logging;
+
+    /**
+     * Constructs a printer buffering up to {@link #DEFAULT_CAPACITY} lines.
+     */
+    public TracePrinter() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a printer buffering up to the specified number of lines.
+     *
+     * @param capacity the number of lines that can be buffered, rounded up to a power of two
+     *
+     * @throws IllegalArgumentException if the capacity is not positive or larger than {@code 2^30}
+     */
+    public TracePrinter(final int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        final int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        this.lines = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+        synchronized (PRINTERS) {
+            PRINTERS.add(this);
+        }
+    }
+
+    /**
+     * Flushes all printers. Run by the shutdown hook.
+     */
+    private static void flushAll() {
+        final List<TracePrinter> printers;
+        synchronized (PRINTERS) {
+            printers = new ArrayList<>(PRINTERS);
+        }
+        printers.forEach(TracePrinter::flush);
+    }
+
+    /**
+     * Returns {@code true} if the lines are written to the SLF4J logger instead of {@link System#out}.
+     *
+     * @return {@code true} if logging is enabled
+     */
+    public boolean isLogging() {
+        return logging;
+    }
+
+    /**
+     * Sets whether the lines are written to the SLF4J logger instead of {@link System#out}, each at level
+     * {@code INFO}.
+     *
+     * @param logging {@code true} to write the lines to the logger
+     */
+    public void setLogging(final boolean logging) {
+        this.logging = logging;
+    }
+
+    /**
+     * Enqueues the current state of the specified robot. Waits only if the buffer is full.
+     *
+     * @param robot the robot to print
+     */
+    void print(final @NotNull Robot robot) {
+        final Line line = new Line(
+            robot.getClass().getName(),
+            robot.getX(),
+            robot.getY(),
+            robot.getDirection(),
+            robot.getNumberOfCoins(),
+            robot.isTurnedOff()
+        );
+        long position = tail.get();
+        while (true) {
+            final long difference = sequences.get((int) position & mask) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // the buffer is full, so wait for the writer to free a slot
+                startWriter();
+                LockSupport.parkNanos(WAIT_NANOS);
+                position = tail.get();
+            } else {
+                position = tail.get();
+            }
+        }
+        final int slot = (int) position & mask;
+        lines.set(slot, line);
+        sequences.set(slot, position + 1);
+        startWriter();
+    }
+
+    /**
+     * Waits until all lines enqueued before this call have been written.
+     */
+    public void flush() {
+        final long target = tail.get();
+        while (written < target) {
+            startWriter();
+            LockSupport.parkNanos(WAIT_NANOS);
+        }
+    }
+
+    /**
+     * Starts a writer unless one is already running, in which case it is woken up if it is parked.
+     */
+    private void startWriter() {
+        if (running.get()) {
+            final Thread current = writer;
+            if (parked && current != null) {
+                LockSupport.unpark(current);
+            }
+        } else if (running.compareAndSet(false, true)) {
+            // the writer must neither keep the program running nor inherit the thread locals of the robot starting it
+            Thread.ofPlatform()
+                .name("fopbot-trace-printer")
+                .daemon()
+                .inheritInheritableThreadLocals(false)
+                .start(this::drain);
+        }
+    }
+
+    /**
+     * Removes the next line from the buffer. Must only be called by the running writer.
+     *
+     * @return the next line or {@code null} if the buffer is empty
+     */
+    private @Nullable Line poll() {
+        final long position = head;
+        final int slot = (int) position & mask;
+        if (sequences.get(slot) != position + 1) {
+            return null;
+        }
+        final Line line = lines.get(slot);
+        lines.set(slot, null);
+        sequences.set(slot, position + mask + 1);
+        head = position + 1;
+        return line;
+    }
+
+    /**
+     * Writes batches of lines until the buffer has been empty for {@link #IDLE_NANOS}. Run by the writer thread.
+     */
+    private void drain() {
+        writer = Thread.currentThread();
+        final StringBuilder batch = new StringBuilder();
+        final String separator = System.lineSeparator();
+        while (true) {
+            int count = 0;
+            Line line;
+            while (count < BATCH_SIZE && (line = poll()) != null) {
+                if (logging) {
+                    LOGGER.info(line.toString());
+                } else {
+                    batch.append(line).append(separator);
+                }
+                count++;
+            }
+            if (count > 0) {
+                if (!batch.isEmpty()) {
+                    System.out.print(batch);
+                    System.out.flush();
+                    batch.setLength(0);
+                }
+                written = head;
+                continue;
+            }
+            // a robot enqueuing a line after this check sees the flag and wakes the writer up
+            parked = true;
+            if (sequences.get((int) head & mask) == head + 1) {
+                parked = false;
+                continue;
+            }
+            final long idleSince = System.nanoTime();
+            LockSupport.parkNanos(this, IDLE_NANOS);
+            parked = false;
+            if (System.nanoTime() - idleSince < IDLE_NANOS || sequences.get((int) head & mask) == head + 1) {
+                continue;
+            }
+            running.set(false);
+            // a robot may have enqueued a line after the last poll without seeing the writer stop
+            if (sequences.get((int) head & mask) != head + 1 || !running.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * The state of a robot to be printed.
+     *
+     * @param type          the name of the class of the robot
+     * @param x             the X coordinate of the robot
+     * @param y             the Y coordinate of the robot
+     * @param direction     the direction of the robot
+     * @param numberOfCoins the number of coins of the robot
+     * @param turnedOff     whether the robot is turned off
+     */
+    private record Line(
+        @NotNull String type,
+        int x,
+        int y,
+        @NotNull Direction direction,
+        int numberOfCoins,
+        boolean turnedOff
+    ) {
+
+        @Override
+        public @NotNull String toString() {
+            return "Robot(" + type + ") is at (" + x + "," + y + ") facing " + direction + " with " + numberOfCoins
+                + " coins (Turned " + (turnedOff ? "off" : "on") + ").";
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package fopbot;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Statistics about the fields visited by the robots of a {@link KarelWorld}, which are maintained incrementally while
+ * the actions of the robots are traced.
+ *
+ * <p>For each field, the statistics record how often it has been entered, the step at which it has been entered for
+ * the first time and how many actions have been performed on it (the dwell time). Like a {@link SparseWorldStorage},
+ * the statistics divide the world into square chunks and only allocate the chunks that contain visited fields, so
+ * their memory consumption only depends on the area the robots have explored. A world keeps statistics for all of
+ * its robots together and, if {@linkplain KarelWorld#setRobotStatistics(boolean) enabled}, for each robot on its own,
+ * see {@link KarelWorld#getStatistics()} and {@link KarelWorld#getStatistics(Robot)}. Since the statistics are
+ * updated with each action, querying them does not require a pass over the traces.
+ */
+public class TraceStatistics {
+
+    /**
+     * The binary logarithm of the edge length of a chunk.
+     */
+    private static final int CHUNK_SHIFT = 5;
+
+    /**
+     * The edge length of a chunk.
+     */
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+    /**
+     * The mask to extract the coordinate within a chunk.
+     */
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /**
+     * The width of the world.
+     */
+    private final int width;
+
+    /**
+     * The height of the world.
+     */
+    private final int height;
+
+    /**
+     * The allocated chunks, mapped by their packed chunk coordinate.
+     */
+    private final Map<Long, Chunk> chunks = new HashMap<>();
+
+    /**
+     * The number of fields that have been visited at least once.
+     */
+    private int coveredCount;
+
+    /**
+     * The highest number of times a single field has been entered.
+     */
+    private int maxVisitCount;
+
+    /**
+     * The total number of times a field has been entered.
+     */
+    private long totalVisits;
+
+    /**
+     * Constructs empty statistics for a world with the specified size.
+     *
+     * @param width  the width of the world
+     * @param height the height of the world
+     */
+    TraceStatistics(final int width, final int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Returns the key of the chunk containing the specified field.
+     *
+     * @param x the X coordinate of the field
+     * @param y the Y coordinate of the field
+     *
+     * @return the key of the chunk containing the field
+     *
+     * @throws IndexOutOfBoundsException if the field is outside the world
+     */
+    private long chunkKey(final int x, final int y) {
+        Objects.checkIndex(x, width);
+        Objects.checkIndex(y, height);
+        return ((long) (y >> CHUNK_SHIFT) << 32) | (x >> CHUNK_SHIFT);
+    }
+
+    /**
+     * Returns the index of the specified field within its chunk.
+     *
+     * @param x the X coordinate of the field
+     * @param y the Y coordinate of the field
+     *
+     * @return the index of the field within its chunk
+     */
+    private static int indexInChunk(final int x, final int y) {
+        return (y & CHUNK_MASK) << CHUNK_SHIFT | (x & CHUNK_MASK);
+    }
+
+    /**
+     * Returns the chunk containing the specified field, allocating it if necessary.
+     *
+     * @param x the X coordinate of the field
+     * @param y the Y coordinate of the field
+     *
+     * @return the chunk containing the field
+     */
+    private @NotNull Chunk chunk(final int x, final int y) {
+        return chunks.computeIfAbsent(chunkKey(x, y), key -> new Chunk());
+    }
+
+    /**
+     * Records that the specified field has been entered at the specified step.
+     *
+     * @param x    the X coordinate of the field
+     * @param y    the Y coordinate of the field
+     * @param step the step at which the field has been entered
+     */
+    synchronized void recordVisit(final int x, final int y, final int step) {
+        final Chunk chunk = chunk(x, y);
+        final int index = indexInChunk(x, y);
+        final int visits = ++chunk.visitCounts[index];
+        if (visits == 1) {
+            chunk.firstVisitSteps[index] = step;
+            coveredCount++;
+        }
+        maxVisitCount = Math.max(maxVisitCount, visits);
+        totalVisits++;
+    }
+
+    /**
+     * Records that the specified number of actions have been performed on the specified field.
+     *
+     * @param x       the X coordinate of the field
+     * @param y       the Y coordinate of the field
+     * @param actions the number of actions
+     */
+    synchronized void recordDwell(final int x, final int y, final int actions) {
+        chunk(x, y).dwellTimes[indexInChunk(x, y)] += actions;
+    }
+
+    /**
+     * Returns the width of the world.
+     *
+     * @return the width of the world
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the height of the world.
+     *
+     * @return the height of the world
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns how often the specified field has been entered. Placing a robot on a field counts as entering it.
+     *
+     * @param x the X coordinate of the field
+     * @param y the Y coordinate of the field
+     *
+     * @return how often the field has been entered
+     *
+     * @throws IndexOutOfBoundsException if the field is outside the world
+     */
+    public synchronized int getVisitCount(final int x, final int y) {
+        final Chunk chunk = chunks.get(chunkKey(x, y));
+        return chunk == null ? 0 : chunk.visitCounts[indexInChunk(x, y)];
+    }
+
+    /**
+     * Returns the step at which the specified field has been entered for the first time.
+     *
+     * @param x the X coordinate of the field
+     * @param y the Y coordinate of the field
+     *
+     * @return the step of the first visit or {@code -1} if the field has not been visited
+     *
+     * @throws IndexOutOfBoundsException if the field is outside the world
+     */
+    public synchronized int getFirstVisitStep(final int x, final int y) {
+        final Chunk chunk = chunks.get(chunkKey(x, y));
+        return chunk == null ? -1 : chunk.firstVisitSteps[indexInChunk(x, y)];
+    }
+
+    /**
+     * Returns the number of actions that have been performed on the specified field.
+     *
+     * @param x the X coordinate of the field
+     * @param y the Y coordinate of the field
+     *
+     * @return the dwell time on the field in actions
+     *
+     * @throws IndexOutOfBoundsException if the field is outside the world
+     */
+    public synchronized long getDwellTime(final int x, final int y) {
+        final Chunk chunk = chunks.get(chunkKey(x, y));
+        return chunk == null ? 0 : chunk.dwellTimes[indexInChunk(x, y)];
+    }
+
+    /**
+     * Returns {@code true} if the specified field has been visited at least once.
+     *
+     * @param x the X coordinate of the field
+     * @param y the Y coordinate of the field
+     *
+     * @return {@code true} if the field has been visited
+     *
+     * @throws IndexOutOfBoundsException if the field is outside the world
+     */
+    public synchronized boolean isCovered(final int x, final int y) {
+        return getVisitCount(x, y) > 0;
+    }
+
+    /**
+     * Returns a coverage bitset, in which the bit {@code y * width + x} is set if the field at {@code (x, y)} has been
+     * visited at least once.
+     *
+     * @return the coverage bitset
+     *
+     * @throws IllegalStateException if the world has more fields than a bitset can index
+     */
+    public synchronized @NotNull BitSet getCoverage() {
+        if ((long) width * height > Integer.MAX_VALUE) {
+            throw new IllegalStateException("The world is too large for a coverage bitset: " + width + "x" + height);
+        }
+        final BitSet coverage = new BitSet();
+        for (final Map.Entry<Long, Chunk> entry : chunks.entrySet()) {
+            final int chunkX = (int) (long) entry.getKey() << CHUNK_SHIFT;
+            final int chunkY = (int) (entry.getKey() >>> 32) << CHUNK_SHIFT;
+            final int[] visitCounts = entry.getValue().visitCounts;
+            for (int index = 0; index < visitCounts.length; index++) {
+                if (visitCounts[index] > 0) {
+                    coverage.set((chunkY + (index >> CHUNK_SHIFT)) * width + chunkX + (index & CHUNK_MASK));
+                }
+            }
+        }
+        return coverage;
+    }
+
+    /**
+     * Returns the number of fields that have been visited at least once.
+     *
+     * @return the number of visited fields
+     */
+    public synchronized int getCoveredCount() {
+        return coveredCount;
+    }
+
+    /**
+     * Returns the fraction of the fields of the world that have been visited at least once.
+     *
+     * @return the covered fraction of the world between 0 and 1
+     */
+    public synchronized double getCoverageRatio() {
+        return (double) coveredCount / ((long) width * height);
+    }
+
+    /**
+     * Returns the highest number of times a single field has been entered, e.g. to normalize a heat map.
+     *
+     * @return the highest visit count
+     */
+    public synchronized int getMaxVisitCount() {
+        return maxVisitCount;
+    }
+
+    /**
+     * Returns the total number of times a field has been entered.
+     *
+     * @return the total number of visits
+     */
+    public synchronized long getTotalVisits() {
+        return totalVisits;
+    }
+
+    /**
+     * The statistics of the fields of a chunk, indexed by {@code (y % CHUNK_SIZE) * CHUNK_SIZE + x % CHUNK_SIZE}.
+     */
+    private static final class Chunk {
+
+        /**
+         * The number of times each field has been entered.
+         */
+        private final int[] visitCounts = new int[CHUNK_SIZE * CHUNK_SIZE];
+
+        /**
+         * The step at which each field has been entered for the first time or {@code -1} if it has not been visited.
+         */
+        private final int[] firstVisitSteps = new int[CHUNK_SIZE * CHUNK_SIZE];
+
+        /**
+         * The number of actions performed on each field.
+         */
+        private final long[] dwellTimes = new long[CHUNK_SIZE * CHUNK_SIZE];
+
+        /**
+         * Constructs a chunk without visited fields.
+         */
+        private Chunk() {
+            Arrays.fill(firstVisitSteps, -1);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package fopbot;
+
+import fopbot.Transition.RobotAction;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A summary of the trace of a single robot in a single run together with the state of its world after the run, as
+ * stored in a {@link TraceCorpus}.
+ *
+ * @param exercise      the name of the exercise the run belongs to
+ * @param program       the name of the program, e.g. the submission
+ * @param fixture       the name of the world fixture
+ * @param robot         the ID of the robot
+ * @param actionCount   the number of actions of the robot
+ * @param moveCount     the number of {@link RobotAction#MOVE} actions of the robot
+ * @param pickCount     the number of {@link RobotAction#PICK_COIN} actions of the robot
+ * @param putCount      the number of {@link RobotAction#PUT_COIN} actions of the robot
+ * @param turnCount     the number of {@link RobotAction#TURN_LEFT} actions of the robot
+ * @param x             the X coordinate of the robot after the run
+ * @param y             the Y coordinate of the robot after the run
+ * @param direction     the direction of the robot after the run
+ * @param numberOfCoins the number of coins of the robot after the run
+ * @param turnedOff     whether the robot is turned off after the run
+ * @param crashed       whether the robot crashed at its final position
+ * @param stateHash     the {@linkplain KarelWorld#getStateHash() state hash} of the world after the run
+ * @param coinsOnBoard  the number of coins lying on the fields of the world after the run
+ * @param duration      the wall-clock time the run took
+ */
+public record TraceSummary(
+    @NotNull String exercise,
+    @NotNull String program,
+    @NotNull String fixture,
+    @NotNull String robot,
+    long actionCount,
+    long moveCount,
+    long pickCount,
+    long putCount,
+    long turnCount,
+    int x,
+    int y,
+    @NotNull Direction direction,
+    int numberOfCoins,
+    boolean turnedOff,
+    boolean crashed,
+    long stateHash,
+    long coinsOnBoard,
+    @NotNull Duration duration
+) {
+
+    /**
+     * Summarizes the traces of the specified run. Robots without any traced transition are skipped.
+     *
+     * @param exercise the name of the exercise the run belongs to
+     * @param result   the result of the run, whose traces have been recorded
+     *
+     * @return the summaries of the traces of the robots of the run
+     */
+    public static @NotNull List<TraceSummary> of(final @NotNull String exercise, final @NotNull RunResult result) {
+        final List<TraceSummary> summaries = new ArrayList<>(result.traces().size());
+        for (final RobotTrace trace : result.traces()) {
+            if (trace.size() == 0) {
+                continue;
+            }
+            // the last transition of a trace of a run result holds the final state of the robot
+            final Robot robot = trace.getTransition(trace.size() - 1).robot;
+            summaries.add(new TraceSummary(
+                exercise,
+                result.program(),
+                result.fixture(),
+                String.valueOf(robot.getId()),
+                trace.getTracedCount() - trace.getActionCount(RobotAction.NONE),
+                trace.getActionCount(RobotAction.MOVE),
+                trace.getActionCount(RobotAction.PICK_COIN),
+                trace.getActionCount(RobotAction.PUT_COIN),
+                trace.getActionCount(RobotAction.TURN_LEFT),
+                robot.getX(),
+                robot.getY(),
+                robot.getDirection(),
+                robot.getNumberOfCoins(),
+                robot.isTurnedOff(),
+                trace.getCrashReason() != null,
+                result.stateHash(),
+                result.stats().coinsOnBoard(),
+                result.duration()
+            ));
+        }
+        return summaries;
+    }
+}
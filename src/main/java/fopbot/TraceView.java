@@ -0,0 +1,264 @@
+package fopbot;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * A read-only view of the transitions a {@link RobotTrace} contained when the view was created.
+ *
+ * <p>A view does not copy the trace: it reads the transitions from the live trace, which only ever appends new
+ * transitions, and ignores all transitions traced after its creation, so its length is stable. Instead of a synthetic
+ * {@link Transition.RobotAction#NONE} transition as appended by {@link KarelWorld#getTrace(Robot)}, the state of the
+ * robot at the creation of the view is available through {@link #getFinalState()}. Cursors allow resuming the
+ * iteration at a given index or step, e.g. to process only the transitions traced since the last poll:
+ *
+ * <pre>{@code
+ * int processed = 0;
+ * while (running) {
+ *     final TraceView view = world.getTraceView(robot);
+ *     for (final TraceCursor cursor = view.cursor(processed); cursor.hasNext(); ) {
+ *         check(cursor.next());
+ *     }
+ *     processed = view.size();
+ * }
+ * }</pre>
+ *
+ * <p>A view becomes invalid if the transitions of its trace are {@linkplain RobotTrace#setTransitions(java.util.List)
+ * replaced}. If a bounded {@link TracePolicy} evicts old transitions, the view stays valid and only its transitions
+ * that have been evicted can no longer be read. Like the trace itself, a view must not be read while the trace is
+ * appended to on another thread.
+ */
+public final class TraceView implements Iterable<Transition> {
+
+    /**
+     * The trace viewed.
+     */
+    private final @NotNull RobotTrace trace;
+
+    /**
+     * The number of transitions of the trace at the creation of this view.
+     */
+    private final int size;
+
+    /**
+     * A copy of the robot at the creation of this view or {@code null} if it is unknown.
+     */
+    private final @Nullable Robot finalState;
+
+    /**
+     * The generation of the transitions of the trace at the creation of this view.
+     */
+    private final int generation;
+
+    /**
+     * The number of transitions evicted from the trace before the creation of this view, i.e. the position of the
+     * first transition of this view among all transitions recorded.
+     */
+    private final long evictedCount;
+
+    /**
+     * Constructs a view of the specified trace.
+     *
+     * @param trace      the trace to view
+     * @param size       the number of transitions of the trace to include
+     * @param finalState a copy of the robot in its current state or {@code null} if it is unknown
+     */
+    TraceView(final @NotNull RobotTrace trace, final int size, final @Nullable Robot finalState) {
+        this.trace = trace;
+        this.size = size;
+        this.finalState = finalState;
+        this.generation = trace.getGeneration();
+        this.evictedCount = trace.getEvictedCount();
+    }
+
+    /**
+     * Returns the index in the trace of the transition with the specified index in this view.
+     *
+     * @param index the index of the transition in this view
+     *
+     * @return the index of the transition in the trace
+     *
+     * @throws ConcurrentModificationException if the transitions of the trace have been replaced or the transition
+     *                                         has been evicted
+     */
+    private int toTraceIndex(final int index) {
+        if (trace.getGeneration() != generation) {
+            throw new ConcurrentModificationException("The transitions of the trace have been replaced");
+        }
+        final long traceIndex = evictedCount + index - trace.getEvictedCount();
+        if (traceIndex < 0) {
+            throw new ConcurrentModificationException("The transition " + index + " has been evicted from the trace");
+        }
+        return (int) traceIndex;
+    }
+
+    /**
+     * Returns the index of the first transition of this view that has not been evicted from the trace.
+     *
+     * @return the index of the first transition still available, which is {@link #size()} if all have been evicted
+     *
+     * @throws ConcurrentModificationException if the transitions of the trace have been replaced
+     */
+    public int getFirstAvailableIndex() {
+        if (trace.getGeneration() != generation) {
+            throw new ConcurrentModificationException("The transitions of the trace have been replaced");
+        }
+        return (int) Math.min(Math.max(trace.getEvictedCount() - evictedCount, 0), size);
+    }
+
+    /**
+     * Returns the number of transitions in this view.
+     *
+     * @return the number of transitions in this view
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns {@code true} if this view does not contain any transitions.
+     *
+     * @return {@code true} if this view is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the transition with the specified index.
+     *
+     * @param index the index of the transition
+     *
+     * @return the transition with the specified index
+     *
+     * @throws IndexOutOfBoundsException       if the index is negative or not smaller than {@link #size()}
+     * @throws ConcurrentModificationException if the transitions of the trace have been replaced or the transition
+     *                                         has been evicted
+     */
+    public @NotNull Transition getTransition(final int index) {
+        Objects.checkIndex(index, size);
+        return trace.getTransition(toTraceIndex(index));
+    }
+
+    /**
+     * Returns a copy of the robot in its state at the creation of this view, i.e. after the last transition of this
+     * view.
+     *
+     * @return the final state of the robot or {@code null} if the view has not been created from a robot
+     */
+    public @Nullable Robot getFinalState() {
+        return finalState;
+    }
+
+    /**
+     * Returns a cursor positioned at the first transition of this view.
+     *
+     * @return a cursor over all transitions of this view
+     */
+    @Override
+    public @NotNull TraceCursor iterator() {
+        return cursor(0);
+    }
+
+    /**
+     * Returns a cursor positioned at the transition with the specified index. The cursor is located through the run
+     * index of the trace, so transitions before the index are not materialized.
+     *
+     * @param index the index of the first transition returned by the cursor, which may be {@link #size()}
+     *
+     * @return a cursor over the transitions of this view from the index on
+     *
+     * @throws IndexOutOfBoundsException       if the index is negative or greater than {@link #size()}
+     * @throws ConcurrentModificationException if the transitions of the trace have been replaced or the transition
+     *                                         with the index has been evicted
+     */
+    public @NotNull TraceCursor cursor(final int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        final int from = toTraceIndex(index);
+        return new TraceCursor(trace.iterator(from, from + size - index), index);
+    }
+
+    /**
+     * Returns a cursor positioned at the first transition whose step number is not smaller than the specified one.
+     * Since step numbers are counted per world, a trace does not contain every step if the world has several robots.
+     *
+     * @param step the step number to resume from
+     *
+     * @return a cursor over the transitions of this view from the step on
+     *
+     * @throws ConcurrentModificationException if the transitions of the trace have been replaced or the transition
+     *                                         with the step has been evicted
+     */
+    public @NotNull TraceCursor cursorAtStep(final int step) {
+        final int available = getFirstAvailableIndex();
+        // step numbers increase along the trace
+        int low = available;
+        int high = size;
+        if (available > 0 && (available == size || getTransition(available).step > step)) {
+            throw new ConcurrentModificationException("The transitions before step " + step + " have been evicted");
+        }
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (getTransition(middle).step < step) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return cursor(low);
+    }
+
+    /**
+     * A cursor over the transitions of a {@link TraceView}, which knows the index of its next transition.
+     */
+    public static final class TraceCursor implements Iterator<Transition> {
+
+        /**
+         * The iterator over the transitions of the trace.
+         */
+        private final @NotNull Iterator<Transition> iterator;
+
+        /**
+         * The index of the next transition.
+         */
+        private int index;
+
+        /**
+         * Constructs a cursor.
+         *
+         * @param iterator the iterator over the transitions of the trace
+         * @param index    the index of the next transition
+         */
+        private TraceCursor(final @NotNull Iterator<Transition> iterator, final int index) {
+            this.iterator = iterator;
+            this.index = index;
+        }
+
+        /**
+         * Returns the index of the transition returned by the next call to {@link #next()}.
+         *
+         * @return the index of the next transition
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public Transition next() {
+            final Transition transition = iterator.next();
+            index++;
+            return transition;
+        }
+    }
+}
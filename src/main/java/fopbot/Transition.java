@@ -2,6 +2,8 @@ package fopbot;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Represents a transition that captures a robot's action within the simulation.
  *
@@ -80,9 +82,9 @@ public class Transition {
     }
 
     /**
-     * Global execution counter, used to assign step numbers to transitions.
+     * The execution counter of robots that do not belong to a world, e.g. copies made for snapshots.
      */
-    private static int nextStep = 0;
+    private static final AtomicInteger DETACHED_STEPS = new AtomicInteger();
 
     /**
      * The step number at which the robot performed the action.
@@ -110,7 +112,36 @@ public class Transition {
     public Transition(final @NotNull RobotAction action, final @NotNull Robot robot) {
         this.action = action;
         this.robot = new Robot(robot); // capture snapshot of the robot's state
-        this.step = nextStep++;
+        this.step = nextSteps(robot, 1);
+    }
+
+    /**
+     * Constructs a new {@code Transition} from an already captured snapshot of a robot.
+     *
+     * @param action the type of action performed
+     * @param robot  the snapshot of the robot performing the action, which is stored without copying it
+     * @param step   the step number at which the robot performed the action
+     */
+    Transition(final @NotNull RobotAction action, final @NotNull Robot robot, final int step) {
+        this.action = action;
+        this.robot = robot;
+        this.step = step;
+    }
+
+    /**
+     * Reserves the specified number of consecutive step numbers for actions of the specified robot. The steps are
+     * taken from the counter of the world of the robot or, if the robot does not belong to a world, from a counter
+     * shared by all such robots.
+     *
+     * @param robot the robot performing the actions
+     * @param count the number of actions
+     *
+     * @return the step number of the first action
+     */
+    static int nextSteps(final @NotNull Robot robot, final int count) {
+        final KarelWorld world = robot.getWorld();
+        // robots copied without a world, e.g. for snapshots, have none
+        return world != null ? world.nextSteps(count) : DETACHED_STEPS.getAndAdd(count);
     }
 
     @Override
@@ -0,0 +1,192 @@
+package fopbot;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enforces wall-clock and CPU time budgets on the execution in {@link KarelWorld}s.
+ *
+ * <p>All watches are supervised by a single shared daemon thread which polls them every
+ * {@value #POLL_INTERVAL_MILLIS} milliseconds. When a watch exceeds one of its budgets, its world is
+ * {@linkplain KarelWorld#cancel(CancellationReason) cancelled}, so that the next action or sensor call of the
+ * watched program throws an {@link ExecutionCancelledException}. Watching a run thus costs no more than an entry in
+ * a set, and a single thread can supervise thousands of runs.
+ *
+ * <pre>{@code
+ * try (Watchdog.Watch watch = Watchdog.watch(world, Duration.ofSeconds(5), Duration.ofSeconds(2))) {
+ *     program.accept(world);
+ * }
+ * }</pre>
+ */
+public final class Watchdog {
+
+    /**
+     * The interval in milliseconds in which the budgets are checked.
+     */
+    private static final long POLL_INTERVAL_MILLIS = 10;
+
+    /**
+     * The bean used to measure the CPU time of the watched threads.
+     */
+    private static final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+    /**
+     * The active watches.
+     */
+    private static final Set<Watch> watches = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The executor polling the watches or {@code null} if it has not been started yet.
+     */
+    private static @Nullable ScheduledExecutorService poller;
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private Watchdog() {
+    }
+
+    /**
+     * Starts watching the execution in the specified world on the current thread. The budgets are measured from now
+     * on until the returned watch is closed.
+     *
+     * <p>The CPU time budget is only enforced if the JVM supports measuring the CPU time of the current thread, which
+     * is usually not the case for virtual threads.
+     *
+     * @param world      the world to cancel if a budget is exceeded
+     * @param wallBudget the wall-clock time budget or {@code null} for no limit
+     * @param cpuBudget  the CPU time budget or {@code null} for no limit
+     *
+     * @return the watch, which has to be closed when the execution has finished
+     */
+    public static @NotNull Watch watch(
+        final @NotNull KarelWorld world,
+        final @Nullable Duration wallBudget,
+        final @Nullable Duration cpuBudget
+    ) {
+        final Thread thread = Thread.currentThread();
+        final long cpuStart = cpuBudget != null && threadBean.isCurrentThreadCpuTimeSupported()
+            ? threadBean.getCurrentThreadCpuTime()
+            : -1;
+        final Watch watch = new Watch(
+            world,
+            thread.threadId(),
+            wallBudget != null ? System.nanoTime() + wallBudget.toNanos() : Long.MAX_VALUE,
+            cpuStart >= 0 ? cpuStart + cpuBudget.toNanos() : Long.MAX_VALUE
+        );
+        ensurePolling();
+        watches.add(watch);
+        return watch;
+    }
+
+    /**
+     * Starts the shared polling thread if it is not running yet.
+     */
+    private static synchronized void ensurePolling() {
+        if (poller != null) {
+            return;
+        }
+        // the poller outlives the run that started it, so it must not keep the scoped world of that run alive
+        poller = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("fopbot-watchdog").daemon().inheritInheritableThreadLocals(false).factory()
+        );
+        poller.scheduleAtFixedRate(Watchdog::poll, POLL_INTERVAL_MILLIS, POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Checks the budgets of all active watches and cancels the worlds of those that exceeded one.
+     */
+    private static void poll() {
+        final long now = System.nanoTime();
+        for (final Watch watch : watches) {
+            if (watch.wallDeadline != Long.MAX_VALUE && now - watch.wallDeadline > 0) {
+                watch.expire(CancellationReason.WALL_TIME_EXCEEDED);
+            } else if (watch.cpuDeadline != Long.MAX_VALUE
+                && threadBean.getThreadCpuTime(watch.threadId) - watch.cpuDeadline > 0) {
+                watch.expire(CancellationReason.CPU_TIME_EXCEEDED);
+            }
+        }
+    }
+
+    /**
+     * The supervision of the execution in a world on a single thread.
+     */
+    public static final class Watch implements AutoCloseable {
+
+        /**
+         * The world to cancel if a budget is exceeded.
+         */
+        private final @NotNull KarelWorld world;
+
+        /**
+         * The ID of the watched thread.
+         */
+        private final long threadId;
+
+        /**
+         * The {@link System#nanoTime()} at which the wall-clock time budget is exceeded or {@link Long#MAX_VALUE}.
+         */
+        private final long wallDeadline;
+
+        /**
+         * The CPU time of the watched thread at which the CPU time budget is exceeded or {@link Long#MAX_VALUE}.
+         */
+        private final long cpuDeadline;
+
+        /**
+         * Constructs a watch.
+         *
+         * @param world        the world to cancel if a budget is exceeded
+         * @param threadId     the ID of the watched thread
+         * @param wallDeadline the time at which the wall-clock time budget is exceeded
+         * @param cpuDeadline  the CPU time at which the CPU time budget is exceeded
+         */
+        private Watch(
+            final @NotNull KarelWorld world,
+            final long threadId,
+            final long wallDeadline,
+            final long cpuDeadline
+        ) {
+            this.world = world;
+            this.threadId = threadId;
+            this.wallDeadline = wallDeadline;
+            this.cpuDeadline = cpuDeadline;
+        }
+
+        /**
+         * Cancels the watched world for the specified reason and stops watching.
+         *
+         * @param reason the reason for the cancellation
+         */
+        private void expire(final @NotNull CancellationReason reason) {
+            world.cancel(reason);
+            watches.remove(this);
+        }
+
+        /**
+         * Returns the world watched by this watch.
+         *
+         * @return the world watched by this watch
+         */
+        public @NotNull KarelWorld getWorld() {
+            return world;
+        }
+
+        /**
+         * Stops watching. Closing a watch does not reset a cancellation that has already happened.
+         */
+        @Override
+        public void close() {
+            watches.remove(this);
+        }
+    }
+}
@@ -1,7 +1,17 @@
 package fopbot;
 
+import java.util.function.Supplier;
+
 /**
  * A wrapper of a {@code KarelWorld} which represents a global world.
+ *
+ * <p>By default, the global world is shared by all threads. Within {@link #runWith(KarelWorld, Runnable)}, the
+ * current thread uses the given world as its global world instead, so that independent programs, e.g. grading tests,
+ * can run concurrently in one JVM. Threads started within the action do not inherit the world, since pooled threads,
+ * e.g. those of the common {@link java.util.concurrent.ForkJoinPool}, would keep it after the action has finished.
+ * A thread that should use the world has to be given it explicitly via {@link #runWith(KarelWorld, Runnable)}, as
+ * done by {@link RobotExecutor}, {@link TickSimulation} and {@link BatchRunner} for the programs and controllers they
+ * run.
  */
 public final class World {
 
@@ -18,6 +28,12 @@ public final class World {
      */
     private static KarelWorld world;
 
+    /**
+     * The global world of the current thread, overriding {@link #world}, or {@code null} if the current thread uses the
+     * shared global world.
+     */
+    private static final ThreadLocal<KarelWorld> scopedWorld = new ThreadLocal<>();
+
     /**
      * Don't let anyone instantiate this class.
      * Since there is only one global world, it is not necessary to instantiate this class.
@@ -63,15 +79,67 @@ public final class World {
      */
     public static void setSize(final int width, final int height) {
         final var newWorld = new KarelWorld(width, height);
+        final var scoped = scopedWorld.get();
+        final var previous = scoped != null ? scoped : world;
         // Copy settings from the previous world if it exists
-        if (world != null) {
-            newWorld.setDelay(world.getDelay());
-            newWorld.setColorProfile(world.getColorProfile());
-            newWorld.setDrawingRegistry(world.getDrawingRegistry());
-            newWorld.setActionLimit(world.getActionLimit());
-            newWorld.setDrawTurnedOffRobots(world.isDrawTurnedOffRobots());
+        if (previous != null) {
+            newWorld.setDelay(previous.getDelay());
+            newWorld.setColorProfile(previous.getColorProfile());
+            newWorld.setDrawingRegistry(previous.getDrawingRegistry());
+            newWorld.setActionLimit(previous.getActionLimit());
+            newWorld.setDrawTurnedOffRobots(previous.isDrawTurnedOffRobots());
+            newWorld.setExecutionProfile(previous.getExecutionProfile());
+            newWorld.setTraceRecording(previous.isTraceRecording());
+            newWorld.setTraceLogDirectory(previous.getTraceLogDirectory());
+            newWorld.setTracePolicy(previous.getTracePolicy());
+            newWorld.setCrashMode(previous.getCrashMode());
+            newWorld.getTracePrinter().setLogging(previous.getTracePrinter().isLogging());
+        }
+        if (scoped != null) {
+            scopedWorld.set(newWorld);
+        } else {
+            world = newWorld;
+        }
+    }
+
+    /**
+     * Runs the specified action with the specified world as the global world of the current thread. Threads started by
+     * the action do not inherit the world and use the shared global world unless they are run with a world themselves.
+     * Calls to {@link #setSize(int, int)} within the action only replace the global world of the current thread.
+     *
+     * @param world  the global world to use while running the action
+     * @param action the action to run
+     */
+    public static void runWith(final KarelWorld world, final Runnable action) {
+        callWith(world, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the specified action with the specified world as the global world of the current thread and returns its
+     * result.
+     *
+     * @param world  the global world to use while running the action
+     * @param action the action to run
+     * @param <T>    the type of the result
+     *
+     * @return the result of the action
+     * @see #runWith(KarelWorld, Runnable)
+     */
+    public static <T> T callWith(final KarelWorld world, final Supplier<T> action) {
+        final var previous = scopedWorld.get();
+        scopedWorld.set(world);
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                scopedWorld.set(previous);
+            } else {
+                scopedWorld.remove();
+            }
         }
-        world = newWorld;
     }
 
     /**
@@ -92,6 +160,26 @@ public final class World {
         return getGlobalWorld().getDelay();
     }
 
+    /**
+     * Sets the execution profile of the global world.
+     *
+     * @param executionProfile the new execution profile
+     *
+     * @see KarelWorld#setExecutionProfile(ExecutionProfile)
+     */
+    public static void setExecutionProfile(final ExecutionProfile executionProfile) {
+        getGlobalWorld().setExecutionProfile(executionProfile);
+    }
+
+    /**
+     * Returns the execution profile of the global world.
+     *
+     * @return the execution profile of the global world
+     */
+    public static ExecutionProfile getExecutionProfile() {
+        return getGlobalWorld().getExecutionProfile();
+    }
+
     /**
      * Resets the world by creating a new global world and thus indirectly removes all entities.
      */
@@ -181,11 +269,16 @@ public final class World {
     }
 
     /**
-     * Returns an instance of the global world.
+     * Returns an instance of the global world. Within {@link #runWith(KarelWorld, Runnable)}, this is the global world
+     * of the current thread.
      *
      * @return an instance of the global world
      */
     public static KarelWorld getGlobalWorld() {
+        final var scoped = scopedWorld.get();
+        if (scoped != null) {
+            return scoped;
+        }
         if (world == null) {
             setSize(10, 10);
         }
@@ -0,0 +1,173 @@
+package fopbot;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+
+/**
+ * A JUnit Jupiter extension that gives each test its own isolated {@link KarelWorld}.
+ *
+ * <p>Before each test, a new world is created according to the {@link WorldSettings} of the test method or class. The
+ * world can be injected as a parameter into the test method and its {@code @BeforeEach} and {@code @AfterEach}
+ * methods, and it is installed as the {@linkplain World#runWith(KarelWorld, Runnable) global world} while they run,
+ * so code using {@link World} or {@link Robot#Robot(int, int)} operates on it as well. Since tests no longer share the
+ * global world, they can run concurrently with {@code junit.jupiter.execution.parallel.enabled = true}.
+ *
+ * <pre>{@code
+ * @ExtendWith(WorldExtension.class)
+ * @WorldSettings(width = 5, height = 5, actionLimit = 1000)
+ * class MyTest {
+ *     @Test
+ *     void test(KarelWorld world) {
+ *         final Robot robot = new Robot(0, 0);
+ *         robot.move();
+ *         assertEquals(1, robot.getY());
+ *     }
+ * }
+ * }</pre>
+ */
+public class WorldExtension implements BeforeEachCallback, ParameterResolver, InvocationInterceptor {
+
+    /**
+     * The namespace in which the world of a test is stored.
+     */
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(WorldExtension.class);
+
+    /**
+     * The settings used for tests without {@link WorldSettings}.
+     */
+    private static final WorldSettings DEFAULT_SETTINGS = Defaults.class.getAnnotation(WorldSettings.class);
+
+    @Override
+    public void beforeEach(final @NotNull ExtensionContext context) {
+        final WorldSettings settings = findSettings(context).orElse(DEFAULT_SETTINGS);
+        final KarelWorld world = new KarelWorld(settings.width(), settings.height());
+        world.setExecutionProfile(settings.executionProfile());
+        world.setTraceRecording(settings.traceRecording());
+        world.setCrashMode(settings.crashMode());
+        world.setActionLimit(settings.actionLimit());
+        context.getStore(NAMESPACE).put(KarelWorld.class, world);
+    }
+
+    /**
+     * Returns the world settings of the test of the specified context. Settings on the test method take precedence
+     * over settings on the test class.
+     *
+     * @param context the context of the test
+     *
+     * @return the world settings of the test or an empty optional if the test has no settings
+     */
+    private static Optional<WorldSettings> findSettings(final @NotNull ExtensionContext context) {
+        return context.getTestMethod()
+            .map(method -> method.getAnnotation(WorldSettings.class))
+            .or(() -> context.getTestClass().map(type -> type.getAnnotation(WorldSettings.class)));
+    }
+
+    /**
+     * Returns the world of the test of the specified context.
+     *
+     * @param context the context of the test
+     *
+     * @return the world of the test
+     *
+     * @throws IllegalStateException if no world has been created for the test
+     */
+    public static @NotNull KarelWorld getWorld(final @NotNull ExtensionContext context) {
+        final KarelWorld world = context.getStore(NAMESPACE).get(KarelWorld.class, KarelWorld.class);
+        if (world == null) {
+            throw new IllegalStateException("No world has been created for " + context.getDisplayName());
+        }
+        return world;
+    }
+
+    @Override
+    public boolean supportsParameter(
+        final @NotNull ParameterContext parameterContext,
+        final @NotNull ExtensionContext extensionContext
+    ) {
+        return parameterContext.getParameter().getType() == KarelWorld.class;
+    }
+
+    @Override
+    public Object resolveParameter(
+        final @NotNull ParameterContext parameterContext,
+        final @NotNull ExtensionContext extensionContext
+    ) {
+        return getWorld(extensionContext);
+    }
+
+    @Override
+    public void interceptBeforeEachMethod(
+        final @NotNull Invocation<Void> invocation,
+        final @NotNull ReflectiveInvocationContext<Method> invocationContext,
+        final @NotNull ExtensionContext extensionContext
+    ) throws Throwable {
+        proceedWithWorld(invocation, extensionContext);
+    }
+
+    @Override
+    public void interceptTestMethod(
+        final @NotNull Invocation<Void> invocation,
+        final @NotNull ReflectiveInvocationContext<Method> invocationContext,
+        final @NotNull ExtensionContext extensionContext
+    ) throws Throwable {
+        proceedWithWorld(invocation, extensionContext);
+    }
+
+    @Override
+    public void interceptTestTemplateMethod(
+        final @NotNull Invocation<Void> invocation,
+        final @NotNull ReflectiveInvocationContext<Method> invocationContext,
+        final @NotNull ExtensionContext extensionContext
+    ) throws Throwable {
+        proceedWithWorld(invocation, extensionContext);
+    }
+
+    @Override
+    public void interceptAfterEachMethod(
+        final @NotNull Invocation<Void> invocation,
+        final @NotNull ReflectiveInvocationContext<Method> invocationContext,
+        final @NotNull ExtensionContext extensionContext
+    ) throws Throwable {
+        proceedWithWorld(invocation, extensionContext);
+    }
+
+    /**
+     * Proceeds with the specified invocation while the world of the test is installed as the global world.
+     *
+     * @param invocation the invocation to proceed with
+     * @param context    the context of the test
+     *
+     * @throws Throwable if the invocation throws an exception
+     */
+    private static void proceedWithWorld(
+        final @NotNull Invocation<Void> invocation,
+        final @NotNull ExtensionContext context
+    ) throws Throwable {
+        final Throwable failure = World.callWith(getWorld(context), () -> {
+            try {
+                invocation.proceed();
+                return null;
+            } catch (final Throwable t) {
+                return t;
+            }
+        });
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Carries the default {@link WorldSettings}.
+     */
+    @WorldSettings
+    private static final class Defaults {
+    }
+}
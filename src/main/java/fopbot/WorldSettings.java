@@ -0,0 +1,65 @@
+package fopbot;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Configures the world that the {@link WorldExtension} creates for each test. An annotation on a test method takes
+ * precedence over an annotation on its test class.
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface WorldSettings {
+
+    /**
+     * Returns the width of the world.
+     *
+     * @return the width of the world
+     */
+    int width() default 10;
+
+    /**
+     * Returns the height of the world.
+     *
+     * @return the height of the world
+     */
+    int height() default 10;
+
+    /**
+     * Returns the action limit of the world.
+     *
+     * @return the action limit of the world or a negative value for no limit
+     * @see KarelWorld#setActionLimit(long)
+     */
+    long actionLimit() default -1;
+
+    /**
+     * Returns the execution profile of the world.
+     *
+     * @return the execution profile of the world
+     * @see KarelWorld#setExecutionProfile(ExecutionProfile)
+     */
+    ExecutionProfile executionProfile() default ExecutionProfile.TURBO;
+
+    /**
+     * Returns whether the actions of the robots of the world are recorded in their traces.
+     *
+     * @return whether the actions of the robots are recorded
+     * @see KarelWorld#setTraceRecording(boolean)
+     */
+    boolean traceRecording() default true;
+
+    /**
+     * Returns how the crashes of the robots of the world are signalled.
+     *
+     * @return the crash mode of the world
+     * @see KarelWorld#setCrashMode(CrashMode)
+     */
+    CrashMode crashMode() default CrashMode.THROW;
+}
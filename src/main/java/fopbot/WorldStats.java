@@ -0,0 +1,43 @@
+package fopbot;
+
+/**
+ * An immutable snapshot of the aggregate statistics of a {@link KarelWorld}.
+ *
+ * <p>The statistics are maintained incrementally by the world while entities are placed, removed, picked up or turned
+ * off, so creating a snapshot does not require scanning the fields of the world.
+ *
+ * @param coinsOnBoard          the total number of coins lying on the fields of the world
+ * @param robotCount            the number of robots placed in the world
+ * @param turnedOnRobotCount    the number of robots that are still turned on
+ * @param horizontalWallCount   the number of horizontal {@link Wall}s placed in the world
+ * @param verticalWallCount     the number of vertical {@link Wall}s placed in the world
+ * @param blockCount            the number of {@link Block}s placed in the world
+ * @see KarelWorld#getStats()
+ */
+public record WorldStats(
+    long coinsOnBoard,
+    int robotCount,
+    int turnedOnRobotCount,
+    int horizontalWallCount,
+    int verticalWallCount,
+    int blockCount
+) {
+
+    /**
+     * Returns the number of robots that are turned off.
+     *
+     * @return the number of robots that are turned off
+     */
+    public int turnedOffRobotCount() {
+        return robotCount - turnedOnRobotCount;
+    }
+
+    /**
+     * Returns the total number of {@link Wall}s placed in the world, regardless of their orientation.
+     *
+     * @return the total number of walls placed in the world
+     */
+    public int wallCount() {
+        return horizontalWallCount + verticalWallCount;
+    }
+}
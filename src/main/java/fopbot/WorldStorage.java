@@ -0,0 +1,144 @@
+package fopbot;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+
+/**
+ * The storage backend of a {@link KarelWorld} that holds the {@link Field}s of the world and answers the sensor
+ * queries of robots.
+ *
+ * <p>Implementations may materialize fields lazily. {@link #getField(int, int)} always returns a field and creates it
+ * if necessary, while {@link #peekField(int, int)} never creates one. Iterating over a storage only visits fields that
+ * have been materialized.
+ *
+ * <p>The world notifies its storage about every entity it adds to or removes from a field, so implementations may
+ * maintain additional indexes for the sensor queries. Entities that are added to or removed from the entity list of a
+ * {@link Field} directly are not reported.
+ *
+ * @see WorldStorageType
+ * @see KarelWorld#getStorage()
+ */
+public interface WorldStorage extends Iterable<Field> {
+
+    /**
+     * Creates the storage of a world. The world's dimensions are already initialized when the factory is invoked.
+     */
+    @FunctionalInterface
+    interface Factory {
+
+        /**
+         * Creates a new storage for the specified world.
+         *
+         * @param world the world to create the storage for
+         *
+         * @return the newly created storage
+         */
+        @NotNull WorldStorage create(@NotNull KarelWorld world);
+    }
+
+    /**
+     * Returns the width of the stored world.
+     *
+     * @return the width of the stored world
+     */
+    int getWidth();
+
+    /**
+     * Returns the height of the stored world.
+     *
+     * @return the height of the stored world
+     */
+    int getHeight();
+
+    /**
+     * Returns the field at the specified coordinate, creating it if it has not been materialized yet.
+     *
+     * @param x the X coordinate of the field
+     * @param y the Y coordinate of the field
+     *
+     * @return the field at the specified coordinate
+     */
+    @NotNull Field getField(int x, int y);
+
+    /**
+     * Returns the field at the specified coordinate or {@code null} if it has not been materialized yet.
+     *
+     * @param x the X coordinate of the field
+     * @param y the Y coordinate of the field
+     *
+     * @return the field at the specified coordinate or {@code null} if it has not been materialized yet
+     */
+    @Nullable Field peekField(int x, int y);
+
+    /**
+     * Returns {@code true} if a block is at the specified coordinate.
+     *
+     * @param x the X coordinate to check
+     * @param y the Y coordinate to check
+     *
+     * @return {@code true} if a block is at the specified coordinate
+     */
+    default boolean isBlockInField(final int x, final int y) {
+        final Field field = peekField(x, y);
+        return field != null && field.getEntities().stream().anyMatch(Block.class::isInstance);
+    }
+
+    /**
+     * Returns {@code true} if a wall with the specified orientation is at the specified coordinate.
+     *
+     * @param x          the X coordinate to check
+     * @param y          the Y coordinate to check
+     * @param horizontal if {@code true} check for a horizontal wall, otherwise for a vertical wall
+     *
+     * @return {@code true} if a wall with the specified orientation is at the specified coordinate
+     */
+    default boolean isWallInField(final int x, final int y, final boolean horizontal) {
+        final Field field = peekField(x, y);
+        return field != null && field.getEntities().stream()
+            .anyMatch(e -> e instanceof Wall && ((Wall) e).isHorizontal() == horizontal);
+    }
+
+    /**
+     * Returns {@code true} if at least one coin is at the specified coordinate.
+     *
+     * @param x the X coordinate to check
+     * @param y the Y coordinate to check
+     *
+     * @return {@code true} if at least one coin is at the specified coordinate
+     */
+    default boolean isCoinInField(final int x, final int y) {
+        final Field field = peekField(x, y);
+        return field != null && field.getEntities().stream().anyMatch(Coin.class::isInstance);
+    }
+
+    /**
+     * Notifies this storage that the specified entity has been added to the field at its coordinate.
+     *
+     * @param entity the entity that has been added
+     */
+    default void entityAdded(final @NotNull FieldEntity entity) {
+    }
+
+    /**
+     * Notifies this storage that the specified entity has been removed from the field at its coordinate.
+     *
+     * @param entity the entity that has been removed
+     */
+    default void entityRemoved(final @NotNull FieldEntity entity) {
+    }
+
+    /**
+     * Removes all entities from the fields of this storage.
+     */
+    void clear();
+
+    /**
+     * Returns an iterator over all materialized fields of this storage.
+     *
+     * @return an iterator over all materialized fields of this storage
+     */
+    @Override
+    @NotNull Iterator<Field> iterator();
+}
@@ -0,0 +1,87 @@
+package fopbot;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The built-in {@link WorldStorage} implementations and the selection of the one that suits a world best.
+ *
+ * @see KarelWorld#KarelWorld(int, int, WorldStorage.Factory)
+ */
+public enum WorldStorageType implements WorldStorage.Factory {
+
+    /**
+     * A storage that eagerly creates every field.
+     *
+     * @see DenseWorldStorage
+     */
+    DENSE {
+        @Override
+        public @NotNull WorldStorage create(final @NotNull KarelWorld world) {
+            return new DenseWorldStorage(world);
+        }
+    },
+
+    /**
+     * A storage that only allocates the chunks of the world that are used.
+     *
+     * @see SparseWorldStorage
+     */
+    SPARSE {
+        @Override
+        public @NotNull WorldStorage create(final @NotNull KarelWorld world) {
+            return new SparseWorldStorage(world);
+        }
+    },
+
+    /**
+     * A storage that keeps one byte of sensor flags per cell and materializes fields on demand.
+     *
+     * @see CompactWorldStorage
+     */
+    COMPACT {
+        @Override
+        public @NotNull WorldStorage create(final @NotNull KarelWorld world) {
+            return new CompactWorldStorage(world);
+        }
+    };
+
+    /**
+     * The expected fraction of occupied cells of a typical world, e.g. to opt into lazily materialized storage with
+     * {@link KarelWorld#KarelWorld(int, int, double)} if no better estimate is known.
+     */
+    public static final double DEFAULT_EXPECTED_DENSITY = 0.05;
+
+    /**
+     * The maximum number of cells of a world that is stored densely.
+     */
+    private static final long DENSE_CELL_LIMIT = 1 << 16;
+
+    /**
+     * The minimum expected density of a world that is stored compactly instead of sparsely.
+     */
+    private static final double COMPACT_DENSITY_THRESHOLD = 0.1;
+
+    /**
+     * Selects the storage type that suits a world with the specified dimensions and expected density best.
+     *
+     * <p>Small worlds are stored densely. Larger worlds are stored compactly if at least
+     * {@value #COMPACT_DENSITY_THRESHOLD} of their cells are expected to be occupied and they fit into a compact
+     * storage, otherwise they are stored sparsely.
+     *
+     * @param width           the width of the world
+     * @param height          the height of the world
+     * @param expectedDensity the expected fraction of cells that will contain entities, between {@code 0} and {@code 1}
+     *
+     * @return the storage type that suits the world best
+     */
+    public static @NotNull WorldStorageType select(final int width, final int height, final double expectedDensity) {
+        final long cells = (long) width * height;
+        if (cells <= DENSE_CELL_LIMIT) {
+            return DENSE;
+        }
+        if (expectedDensity >= COMPACT_DENSITY_THRESHOLD && cells <= CompactWorldStorage.MAX_CELLS) {
+            return COMPACT;
+        }
+        return SPARSE;
+    }
+}